@@ -0,0 +1,93 @@
+package restaurant.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import restaurant.Party;
+import restaurant.Restaurant;
+import restaurant.Table;
+import restaurant.exceptions.NonPositiveArgumentException;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard polling: floor screens reading table and waitlist state between mutations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DashboardPollingBenchmark {
+    @Param({"50", "500"})
+    private int tables;
+
+    @Param({"100", "2000"})
+    private int waitlist;
+
+    @Param({"0.1"})
+    private double vipRatio;
+
+    @Param({"MIXED"})
+    private PartySizes partySizes;
+
+    private Restaurant restaurant;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NonPositiveArgumentException {
+        restaurant = Floor.build(tables, waitlist, vipRatio, partySizes, new SplittableRandom(42));
+    }
+
+    @Benchmark
+    public List<Table> emptyTables() {
+        return restaurant.getEmptyTables();
+    }
+
+    @Benchmark
+    public List<Table> filledTables() {
+        return restaurant.getFilledTables();
+    }
+
+    @Benchmark
+    public List<Table> emptyTablesView() {
+        return restaurant.getEmptyTablesView();
+    }
+
+    @Benchmark
+    public List<Table> filledTablesView() {
+        return restaurant.getFilledTablesView();
+    }
+
+    @Benchmark
+    public List<Party> unseatedParties() {
+        return restaurant.getUnseatedParties();
+    }
+
+    @Benchmark
+    public List<Party> sharedUnseatedParties() {
+        return restaurant.getSharedUnseatedParties();
+    }
+
+    /**
+     * A full dashboard refresh: every list, walked once.
+     */
+    @Benchmark
+    public void refresh(Blackhole blackhole) {
+        for (Table table : restaurant.getEmptyTablesView()) blackhole.consume(table.getTableCapacity());
+        for (Table table : restaurant.getFilledTablesView()) blackhole.consume(table.getParty());
+        for (Party party : restaurant.getSharedUnseatedParties()) blackhole.consume(party.getPartySize());
+    }
+}
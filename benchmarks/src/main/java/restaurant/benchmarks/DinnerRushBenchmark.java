@@ -0,0 +1,104 @@
+package restaurant.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import restaurant.Party;
+import restaurant.Restaurant;
+import restaurant.Status;
+import restaurant.Table;
+import restaurant.exceptions.EmptyTableException;
+import restaurant.exceptions.MissingPartyException;
+import restaurant.exceptions.NoTablesAvailableException;
+import restaurant.exceptions.NonPositiveArgumentException;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state dinner rush: a full floor with a standing waitlist, where tables turn over and new parties keep arriving.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DinnerRushBenchmark {
+    @Param({"50", "500"})
+    private int tables;
+
+    @Param({"100", "2000"})
+    private int waitlist;
+
+    @Param({"0", "0.1", "0.5"})
+    private double vipRatio;
+
+    @Param({"SMALL", "MIXED", "LARGE"})
+    private PartySizes partySizes;
+
+    private Restaurant restaurant;
+    private SplittableRandom random;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws NonPositiveArgumentException {
+        random = new SplittableRandom(42);
+        restaurant = Floor.build(tables, waitlist, vipRatio, partySizes, random);
+    }
+
+    /**
+     * One table clears, one party arrives and the host seats the next party.
+     */
+    @Benchmark
+    public Status turnover() throws EmptyTableException, NonPositiveArgumentException {
+        List<Table> filled = restaurant.getFilledTablesView();
+        if (!filled.isEmpty()) restaurant.emptyTable(filled.get(random.nextInt(filled.size())));
+        Floor.book(restaurant, vipRatio, partySizes, random);
+        return restaurant.trySeatParty();
+    }
+
+    /**
+     * The same turnover through the throwing {@link Restaurant#seatParty()}, which pays for an exception
+     * whenever nobody fits.
+     */
+    @Benchmark
+    public boolean turnoverThrowing() throws EmptyTableException, NonPositiveArgumentException {
+        List<Table> filled = restaurant.getFilledTablesView();
+        if (!filled.isEmpty()) restaurant.emptyTable(filled.get(random.nextInt(filled.size())));
+        Floor.book(restaurant, vipRatio, partySizes, random);
+        try {
+            restaurant.seatParty();
+            return true;
+        } catch (NoTablesAvailableException e) {
+            return false;
+        }
+    }
+
+    /**
+     * A party books and then cancels, leaving the waitlist unchanged.
+     */
+    @Benchmark
+    public Party bookAndCancel() throws NonPositiveArgumentException, MissingPartyException {
+        Party party = restaurant.bookParty(partySizes.next(random), random.nextDouble() < vipRatio);
+        restaurant.removeParty(party);
+        return party;
+    }
+
+    /**
+     * Seating attempt when nothing fits: the common case at peak.
+     */
+    @Benchmark
+    public Status seatWhenFull() {
+        return restaurant.trySeatParty();
+    }
+}
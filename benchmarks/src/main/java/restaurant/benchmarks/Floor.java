@@ -0,0 +1,42 @@
+package restaurant.benchmarks;
+
+import restaurant.Restaurant;
+import restaurant.exceptions.NonPositiveArgumentException;
+
+import java.util.SplittableRandom;
+
+/**
+ * Builds the restaurants the benchmarks run against.
+ */
+final class Floor {
+    /** Table capacities, assigned to tables round robin. */
+    static final int[] CAPACITIES = {2, 2, 4, 4, 4, 6, 6, 8, 10, 12};
+
+    private Floor() {
+    }
+
+    /**
+     * Creates a restaurant with the given number of tables, seats as many parties as fit,
+     * then leaves the given number of parties waiting.
+     */
+    static Restaurant build(int tables, int waitlist, double vipRatio, PartySizes partySizes, SplittableRandom random)
+            throws NonPositiveArgumentException {
+        Restaurant restaurant = new Restaurant();
+        for (int i = 0; i < tables; ++i) {
+            restaurant.addTable(CAPACITIES[i % CAPACITIES.length]);
+        }
+        for (int i = 0; i < tables; ++i) {
+            book(restaurant, vipRatio, partySizes, random);
+        }
+        restaurant.seatAll();
+        while (restaurant.getUnseatedParties().size() < waitlist) {
+            book(restaurant, vipRatio, partySizes, random);
+        }
+        return restaurant;
+    }
+
+    static void book(Restaurant restaurant, double vipRatio, PartySizes partySizes, SplittableRandom random)
+            throws NonPositiveArgumentException {
+        restaurant.bookParty(partySizes.next(random), random.nextDouble() < vipRatio);
+    }
+}
@@ -0,0 +1,69 @@
+package restaurant.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import restaurant.Restaurant;
+import restaurant.Table;
+import restaurant.exceptions.MissingTableException;
+import restaurant.exceptions.NonPositiveArgumentException;
+import restaurant.exceptions.OccupiedTableException;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk floor reconfiguration: empty tables are removed and replaced while the room is half full.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FloorReconfigurationBenchmark {
+    @Param({"50", "500", "5000"})
+    private int tables;
+
+    @Param({"0"})
+    private int waitlist;
+
+    @Param({"0.1"})
+    private double vipRatio;
+
+    @Param({"MIXED"})
+    private PartySizes partySizes;
+
+    private Restaurant restaurant;
+    private SplittableRandom random;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws NonPositiveArgumentException {
+        random = new SplittableRandom(42);
+        restaurant = Floor.build(tables, waitlist, vipRatio, partySizes, random);
+        for (int i = 0; i < tables; ++i) {
+            restaurant.addTable(Floor.CAPACITIES[i % Floor.CAPACITIES.length]);
+        }
+    }
+
+    /**
+     * Removes a random empty table and adds a new one of the same capacity.
+     */
+    @Benchmark
+    public Table replaceTable() throws NonPositiveArgumentException, OccupiedTableException, MissingTableException {
+        List<Table> empty = restaurant.getEmptyTablesView();
+        Table table = empty.get(random.nextInt(empty.size()));
+        restaurant.removeTable(table);
+        return restaurant.addTable(table.getTableCapacity());
+    }
+}
@@ -0,0 +1,25 @@
+package restaurant.benchmarks;
+
+import java.util.SplittableRandom;
+
+/**
+ * Party-size distributions used to drive the benchmarks.
+ */
+public enum PartySizes {
+    /** Mostly couples and groups of four. */
+    SMALL(new int[] {1, 2, 2, 2, 3, 4, 4}),
+    /** Any size from one to eight, equally likely. */
+    MIXED(new int[] {1, 2, 3, 4, 5, 6, 7, 8}),
+    /** Groups of four to twelve. */
+    LARGE(new int[] {4, 5, 6, 6, 8, 8, 10, 12});
+
+    private final int[] sizes;
+
+    PartySizes(int[] sizes) {
+        this.sizes = sizes;
+    }
+
+    public int next(SplittableRandom random) {
+        return sizes[random.nextInt(sizes.length)];
+    }
+}
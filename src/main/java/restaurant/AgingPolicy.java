@@ -0,0 +1,76 @@
+package restaurant;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * A seating policy that stops non-VIP parties from starving behind a steady stream of VIPs.
+ * <p>
+ * It seats like {@link BestFitPolicy}, except that a non-VIP party that has waited at least the maximum wait
+ * is promoted to VIP priority, ranking with the VIP parties by booking order.
+ * Non-VIP parties are kept in booking order with their booking time, so promotion only ever looks at
+ * the parties that are due.
+ * Parties already waiting when the policy is attached count as booked at that moment.
+ */
+public final class AgingPolicy extends BestFitPolicy {
+    private final long maxWait;
+    private final LongSupplier clock;
+    private final LinkedHashMap<Party, Long> bookedAt = new LinkedHashMap<Party, Long>();
+
+    /**
+     * @param maxWaitMillis How long a non-VIP party waits, in milliseconds, before it is promoted to VIP priority.
+     */
+    public AgingPolicy(final long maxWaitMillis) {
+        this(maxWaitMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxWait How long a non-VIP party waits before it is promoted to VIP priority, in the unit of the clock.
+     * @param clock The source of the current time.
+     */
+    public AgingPolicy(final long maxWait, final LongSupplier clock) {
+        if (maxWait < 0) throw new IllegalArgumentException("maximum wait must not be negative: " + maxWait);
+        this.maxWait = maxWait;
+        this.clock = clock;
+    }
+
+    @Override
+    public void detach(final Restaurant restaurant) {
+        if (this.restaurant == restaurant) bookedAt.clear();
+        super.detach(restaurant);
+    }
+
+    @Override
+    public Seating next() {
+        final long now = clock.getAsLong();
+        final Iterator<Map.Entry<Party, Long>> due = bookedAt.entrySet().iterator();
+        while (due.hasNext()) {
+            final Map.Entry<Party, Long> entry = due.next();
+            if (now - entry.getValue() < maxWait) break;
+            waiting.remove(entry.getKey());
+            waiting.add(entry.getKey(), PartyBuckets.PROMOTED);
+            due.remove();
+        }
+        return super.next();
+    }
+
+    @Override
+    public void partyBooked(final Party party) {
+        super.partyBooked(party);
+        if (!party.isVIP()) bookedAt.put(party, clock.getAsLong());
+    }
+
+    @Override
+    public void partyRemoved(final Party party) {
+        super.partyRemoved(party);
+        bookedAt.remove(party);
+    }
+
+    @Override
+    public void partySeated(final Seating seating) {
+        super.partySeated(seating);
+        bookedAt.remove(seating.getParty());
+    }
+}
@@ -0,0 +1,98 @@
+package restaurant;
+
+import java.util.List;
+
+/**
+ * The default seating policy: the earliest waiting VIP party that fits first, otherwise the earliest non-VIP party,
+ * at any empty table with the smallest capacity that can seat it.
+ * A party too large for every empty table may be seated at adjacent tables pushed together,
+ * as described by {@link Restaurant#joinTables(Table, Table)}.
+ * <p>
+ * Waiting parties are indexed by size, so finding the first party that fits looks at one party per size
+ * no matter how long the queue is. Joined tables are only searched for party sizes larger than every empty table,
+ * and a size no set of tables can seat is remembered until a table is added or emptied or two tables are joined.
+ */
+public class BestFitPolicy implements SeatingPolicy {
+    final PartyBuckets waiting = new PartyBuckets();
+    Restaurant restaurant = null;
+    private int failedJoinSize = Integer.MAX_VALUE;
+    private int failedJoinLimit = 0;
+
+    @Override
+    public void attach(final Restaurant restaurant) {
+        if (this.restaurant != null) throw new IllegalStateException("Policy is already attached to a restaurant");
+        this.restaurant = restaurant;
+        for (Party party : restaurant.getSharedUnseatedParties()) partyBooked(party);
+        forgetFailedJoins();
+    }
+
+    @Override
+    public void detach(final Restaurant restaurant) {
+        if (this.restaurant != restaurant) return;
+        this.restaurant = null;
+        waiting.clear();
+    }
+
+    @Override
+    public Seating next() {
+        final CapacityIndex freeTables = restaurant.freeTableIndex();
+        final int largest = freeTables.largestCapacity();
+        final Party party = waiting.first(1, largest);
+
+        if (restaurant.hasAdjacentTables()) {
+            if (failedJoinLimit != restaurant.getMaxJoinedTables()) forgetFailedJoins();
+            // Parties ahead of it that are too large for any single table can only be seated at joined tables.
+            Party large;
+            while ((large = waiting.first(largest + 1, failedJoinSize - 1)) != null
+                    && (party == null || waiting.precedes(large, party))) {
+                final List<Table> tables = restaurant.findJoinedTables(large.getPartySize());
+                if (tables != null) return new Seating(large, tables);
+                failedJoinSize = large.getPartySize();
+            }
+        }
+        return party == null ? null : new Seating(party, chooseTable(party));
+    }
+
+    /**
+     * @param party A waiting party that fits at some empty table.
+     * @return The empty table to seat the party at.
+     */
+    Table chooseTable(final Party party) {
+        return restaurant.freeTableIndex().peekBestFit(party.getPartySize());
+    }
+
+    @Override
+    public void tableAdded(final Table table) {
+        forgetFailedJoins();
+    }
+
+    @Override
+    public void tableEmptied(final Table table, final Party party) {
+        forgetFailedJoins();
+    }
+
+    @Override
+    public void tablesJoined(final Table table, final Table other) {
+        forgetFailedJoins();
+    }
+
+    @Override
+    public void partyBooked(final Party party) {
+        waiting.add(party, party.isVIP() ? PartyBuckets.VIP : PartyBuckets.REGULAR);
+    }
+
+    @Override
+    public void partyRemoved(final Party party) {
+        waiting.remove(party);
+    }
+
+    @Override
+    public void partySeated(final Seating seating) {
+        waiting.remove(seating.getParty());
+    }
+
+    private void forgetFailedJoins() {
+        failedJoinSize = Integer.MAX_VALUE;
+        if (restaurant != null) failedJoinLimit = restaurant.getMaxJoinedTables();
+    }
+}
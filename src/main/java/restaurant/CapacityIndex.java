@@ -0,0 +1,113 @@
+package restaurant;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Index of the empty tables of a restaurant, bucketed by capacity.
+ * Only non-empty buckets are kept in the ordered map so that a best-fit lookup is a single ceiling search.
+ * Every indexed table remembers its bucket and its slot in that bucket, so removal is constant time.
+ */
+final class CapacityIndex {
+    private final TreeMap<Integer, Bucket> buckets = new TreeMap<Integer, Bucket>();
+    private final Map<Integer, Bucket> spareBuckets = new HashMap<Integer, Bucket>();
+
+    /**
+     * Adds an empty table to the index.
+     * @param table The table to add.
+     */
+    void add(final Table table) {
+        final Integer capacity = table.getTableCapacity();
+        Bucket bucket = buckets.get(capacity);
+        if (bucket == null) {
+            bucket = spareBuckets.remove(capacity);
+            if (bucket == null) bucket = new Bucket(capacity);
+            buckets.put(capacity, bucket);
+        }
+        bucket.add(table);
+    }
+
+    /**
+     * Removes a table from the index.
+     * @param table The table to remove.
+     * @return Whether the table was in the index.
+     */
+    boolean remove(final Table table) {
+        final Bucket bucket = table.freeBucket;
+        if (bucket == null || bucket.index != this) return false;
+        bucket.remove(table);
+        if (bucket.size == 0) retire(bucket);
+        return true;
+    }
+
+    /**
+     * @param table The table to look for.
+     * @return Whether the table is in the index.
+     */
+    boolean contains(final Table table) {
+        return table.freeBucket != null && table.freeBucket.index == this;
+    }
+
+    /**
+     * Returns, without removing it, any table with the smallest capacity that can seat a party of the given size.
+     * @param size The size of the party to seat.
+     * @return The chosen table, or null if no table is large enough.
+     */
+    Table peekBestFit(final int size) {
+        final Map.Entry<Integer, Bucket> entry = buckets.ceilingEntry(size);
+        if (entry == null) return null;
+        final Bucket bucket = entry.getValue();
+        return bucket.tables[bucket.size - 1];
+    }
+
+    /**
+     * @return The capacity of the largest table in the index, or 0 if it is empty.
+     */
+    int largestCapacity() {
+        return buckets.isEmpty() ? 0 : buckets.lastKey();
+    }
+
+    boolean isEmpty() {
+        return buckets.isEmpty();
+    }
+
+    private void retire(final Bucket bucket) {
+        buckets.remove(bucket.capacity);
+        spareBuckets.put(bucket.capacity, bucket);
+    }
+
+    /**
+     * The empty tables of a single capacity, packed at the front of an array.
+     */
+    final class Bucket {
+        private final Integer capacity;
+        private final CapacityIndex index = CapacityIndex.this;
+        private Table[] tables = new Table[4];
+        private int size = 0;
+
+        private Bucket(final Integer capacity) {
+            this.capacity = capacity;
+        }
+
+        private void add(final Table table) {
+            if (size == tables.length) {
+                Table[] grown = new Table[size * 2];
+                System.arraycopy(tables, 0, grown, 0, size);
+                tables = grown;
+            }
+            tables[size] = table;
+            table.freeBucket = this;
+            table.freeSlot = size++;
+        }
+
+        private void remove(final Table table) {
+            final Table last = tables[--size];
+            tables[table.freeSlot] = last;
+            last.freeSlot = table.freeSlot;
+            tables[size] = null;
+            table.freeBucket = null;
+            table.freeSlot = -1;
+        }
+    }
+}
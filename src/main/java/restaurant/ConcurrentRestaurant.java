@@ -0,0 +1,275 @@
+package restaurant;
+
+import restaurant.exceptions.EmptyTableException;
+import restaurant.exceptions.MissingPartyException;
+import restaurant.exceptions.MissingTableException;
+import restaurant.exceptions.NoTablesAvailableException;
+import restaurant.exceptions.NonPositiveArgumentException;
+import restaurant.exceptions.OccupiedTableException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A restaurant that may be shared by many threads without external locking.
+ * Bookings are lock-free appends to a VIP or non-VIP queue.
+ * Every table belongs to a capacity bucket with its own lock, and a table only changes state while its bucket is locked,
+ * so seating locks just the bucket it takes a table from and emptying a table never contends with booking.
+ * Every party maps to where it is: waiting, or the table it was claimed for.
+ * A party is handed out at most once because seating claims it by swapping its entry from waiting to a table,
+ * and it claims and occupies the table under the table's bucket lock, so a removal that finds the party claimed
+ * takes the same lock and always sees it seated.
+ * Seating follows the same rules as {@link Restaurant#seatParty()}.
+ */
+public class ConcurrentRestaurant implements ReservationSystem {
+    private final ConcurrentSkipListMap<Integer, Bucket> buckets = new ConcurrentSkipListMap<Integer, Bucket>();
+    private final Map<Table, Bucket> tables = new ConcurrentHashMap<Table, Bucket>();
+    private final ConcurrentLinkedQueue<Party> vipQueue = new ConcurrentLinkedQueue<Party>();
+    private final ConcurrentLinkedQueue<Party> regularQueue = new ConcurrentLinkedQueue<Party>();
+    private static final Object WAITING = new Object();
+
+    // Each waiting party maps to WAITING and each seated party to its table.
+    private final Map<Party, Object> parties = new ConcurrentHashMap<Party, Object>();
+    private final List<ConcurrentLinkedQueue<Party>> queues = Arrays.asList(vipQueue, regularQueue);
+    private final AtomicInteger nextTableId = new AtomicInteger(1);
+    private final AtomicInteger nextPartyId = new AtomicInteger(1);
+
+    @Override
+    public Table addTable(final int capacity) throws NonPositiveArgumentException {
+        if (capacity <= 0) throw new NonPositiveArgumentException(capacity);
+        Table newTable = new Table(capacity);
+        newTable.id = nextTableId.getAndIncrement();
+        Bucket bucket = buckets.computeIfAbsent(capacity, key -> new Bucket());
+
+        bucket.lock.lock();
+        try {
+            newTable.held = true;
+            tables.put(newTable, bucket);
+            bucket.release(newTable);
+        } finally {
+            bucket.lock.unlock();
+        }
+        return newTable;
+    }
+
+    @Override
+    public void removeTable(final Table table) throws OccupiedTableException, MissingTableException {
+        if (table == null) throw new MissingTableException(table);
+        Bucket bucket = tables.get(table);
+        if (bucket == null) throw new MissingTableException(table);
+
+        bucket.lock.lock();
+        try {
+            if (tables.get(table) != bucket) throw new MissingTableException(table);
+            if (table.isOccupied()) throw new OccupiedTableException(table, table.getParty());
+            bucket.take(table);
+            tables.remove(table);
+            table.held = false;
+        } finally {
+            bucket.lock.unlock();
+        }
+    }
+
+    @Override
+    public Party bookParty(final int size, final boolean isVIP) throws NonPositiveArgumentException {
+        if (size <= 0) throw new NonPositiveArgumentException(size);
+
+        Party newParty = new Party(size, isVIP);
+        newParty.id = nextPartyId.getAndIncrement();
+        parties.put(newParty, WAITING);
+        (isVIP ? vipQueue : regularQueue).offer(newParty);
+
+        return newParty;
+    }
+
+    /**
+     * Removes the specified party from the restaurant.
+     * A waiting party is dropped from its queue lazily, the next time seating walks past it.
+     * A seated party leaves its table, which is emptied under its bucket's lock as {@link #emptyTable(Table)} would.
+     * @param party The party to remove from the restaurant.
+     * @throws MissingPartyException
+     */
+    @Override
+    public void removeParty(final Party party) throws MissingPartyException {
+        if (party == null) throw new MissingPartyException(party);
+        if (parties.remove(party, WAITING)) return;
+
+        Object place = parties.get(party);
+        Bucket bucket = place == null ? null : tables.get(place);
+        if (bucket == null) throw new MissingPartyException(party);
+
+        Table table = (Table) place;
+        bucket.lock.lock();
+        try {
+            if (table.getParty() != party || !parties.remove(party, table)) throw new MissingPartyException(party);
+            table.vacate();
+            bucket.release(table);
+        } finally {
+            bucket.lock.unlock();
+        }
+    }
+
+    @Override
+    public void seatParty() throws NoTablesAvailableException {
+        Party firstParty = null;
+
+        for (ConcurrentLinkedQueue<Party> queue : queues) {
+            for (Iterator<Party> it = queue.iterator(); it.hasNext(); ) {
+                Party party = it.next();
+                if (parties.get(party) != WAITING) {
+                    it.remove();
+                    continue;
+                }
+                if (firstParty == null) firstParty = party;
+
+                if (trySeat(party)) {
+                    it.remove();
+                    return;
+                }
+            }
+        }
+
+        if (firstParty != null) throw new NoTablesAvailableException(firstParty);
+    }
+
+    @Override
+    public Party emptyTable(final Table table) throws EmptyTableException {
+        Bucket bucket = tables.get(table);
+        if (bucket == null) {
+            if (!table.isOccupied()) throw new EmptyTableException(table);
+            return null;
+        }
+
+        bucket.lock.lock();
+        try {
+            if (!table.isOccupied()) throw new EmptyTableException(table);
+            Party party = table.getParty();
+            parties.remove(party, table);
+            table.vacate();
+            bucket.release(table);
+            return party;
+        } finally {
+            bucket.lock.unlock();
+        }
+    }
+
+    /**
+     * @return A snapshot of the tables currently occupied by a party.
+     */
+    @Override
+    public List<Table> getFilledTables() {
+        List<Table> result = new ArrayList<Table>();
+        for (Map.Entry<Table, Bucket> entry : tables.entrySet()) {
+            Bucket bucket = entry.getValue();
+            bucket.lock.lock();
+            try {
+                if (entry.getKey().isOccupied()) result.add(entry.getKey());
+            } finally {
+                bucket.lock.unlock();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return A snapshot of the tables not occupied by a party.
+     */
+    @Override
+    public List<Table> getEmptyTables() {
+        List<Table> result = new ArrayList<Table>();
+        for (Bucket bucket : buckets.values()) {
+            if (bucket.freeCount.get() == 0) continue;
+            bucket.lock.lock();
+            try {
+                result.addAll(bucket.freeTables);
+            } finally {
+                bucket.lock.unlock();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int filledTableCount() {
+        return Math.max(0, tables.size() - emptyTableCount());
+    }
+
+    @Override
+    public int emptyTableCount() {
+        int count = 0;
+        for (Bucket bucket : buckets.values()) {
+            count += bucket.freeCount.get();
+        }
+        return count;
+    }
+
+    /**
+     * @return A snapshot of the parties waiting for a table, VIP parties first and each class in booking order.
+     */
+    @Override
+    public List<Party> getUnseatedParties() {
+        List<Party> unseatedParties = new ArrayList<Party>();
+        for (ConcurrentLinkedQueue<Party> queue : queues) {
+            for (Party party : queue) {
+                if (parties.get(party) == WAITING) unseatedParties.add(party);
+            }
+        }
+        return unseatedParties;
+    }
+
+    /**
+     * Seats the party at the smallest empty table that fits, claiming the party under the lock of that table's bucket.
+     * @param party The party to seat.
+     * @return Whether the party was seated by this call.
+     */
+    private boolean trySeat(final Party party) {
+        for (Bucket bucket : buckets.tailMap(party.getPartySize()).values()) {
+            if (bucket.freeCount.get() == 0) continue;
+            bucket.lock.lock();
+            try {
+                Table table = bucket.freeTables.peekFirst();
+                if (table == null) continue;
+                if (!parties.replace(party, WAITING, table)) return false;
+
+                bucket.takeFirst();
+                party.seatAtTable(table);
+                table.occupy(party);
+                return true;
+            } finally {
+                bucket.lock.unlock();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The tables of a single capacity and the lock guarding their state.
+     */
+    private static final class Bucket {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<Table> freeTables = new ArrayDeque<Table>();
+        private final AtomicInteger freeCount = new AtomicInteger();
+
+        private void release(final Table table) {
+            freeTables.addLast(table);
+            freeCount.incrementAndGet();
+        }
+
+        private void take(final Table table) {
+            if (freeTables.remove(table)) freeCount.decrementAndGet();
+        }
+
+        private void takeFirst() {
+            if (freeTables.pollFirst() != null) freeCount.decrementAndGet();
+        }
+    }
+}
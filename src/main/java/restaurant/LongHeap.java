@@ -0,0 +1,65 @@
+package restaurant;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of primitive longs, so hot loops can order times without boxing them.
+ */
+final class LongHeap {
+    private long[] values;
+    private int size = 0;
+
+    LongHeap() {
+        this(16);
+    }
+
+    LongHeap(final int capacity) {
+        values = new long[Math.max(1, capacity)];
+    }
+
+    void add(final long value) {
+        if (size == values.length) values = Arrays.copyOf(values, size * 2);
+        int child = size++;
+        while (child > 0) {
+            final int parent = (child - 1) >>> 1;
+            if (values[parent] <= value) break;
+            values[child] = values[parent];
+            child = parent;
+        }
+        values[child] = value;
+    }
+
+    /**
+     * @return The smallest value. The heap must not be empty.
+     */
+    long peek() {
+        return values[0];
+    }
+
+    /**
+     * Removes and returns the smallest value. The heap must not be empty.
+     */
+    long poll() {
+        final long smallest = values[0];
+        final long last = values[--size];
+        int parent = 0;
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= size) break;
+            if (child + 1 < size && values[child + 1] < values[child]) ++child;
+            if (last <= values[child]) break;
+            values[parent] = values[child];
+            parent = child;
+        }
+        values[parent] = last;
+        return smallest;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
@@ -1,5 +1,8 @@
 package restaurant;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Represents a group of people to be seated together at the restaurant.
  */
@@ -7,12 +10,27 @@ public class Party {
     private int partySize = 0;
     private boolean isVIP = false;
     private Table seatedTable = null;
+    int id = 0;
+    List<Table> joinedTables = null;
+    long bookedAt = 0;
+
+    // Links maintained by the waitlist this party is queued in.
+    Waitlist waitlist = null;
+    Party previous = null;
+    Party next = null;
 
 	public Party(int size, boolean vip) {
         this.partySize = size;
         this.isVIP = vip;
     }
     
+    /**
+     * @return The number the restaurant gave this party when it was booked, unique within that restaurant.
+     */
+    public int getId() {
+        return id;
+    }
+
     public boolean isVIP() {
         return this.isVIP;
     }
@@ -25,6 +43,15 @@ public class Party {
 		return seatedTable;
 	}
 
+    /**
+     * @return Every table the party is seated at: several if tables were pushed together for it,
+     * otherwise just its seated table, or none if it has not been seated.
+     */
+    public List<Table> getSeatedTables() {
+        if (joinedTables != null) return Collections.unmodifiableList(joinedTables);
+        return seatedTable == null ? Collections.<Table>emptyList() : Collections.singletonList(seatedTable);
+    }
+
 	public void seatAtTable(Table seatedTable) {
 		this.seatedTable = seatedTable;
 	}
@@ -0,0 +1,133 @@
+package restaurant;
+
+import java.util.LinkedHashSet;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+
+/**
+ * Waiting parties bucketed by size, so a seating policy can find the first party in priority order
+ * within a range of sizes by looking at one party per size instead of walking the whole queue.
+ * <p>
+ * Each size has three lanes, each kept in booking order: VIP parties, non-VIP parties promoted to VIP priority,
+ * and the remaining non-VIP parties.
+ * VIP and promoted parties come before all others and are ordered among themselves by id, which follows booking order.
+ */
+final class PartyBuckets {
+    static final int VIP = 0;
+    static final int PROMOTED = 1;
+    static final int REGULAR = 2;
+
+    private final TreeMap<Integer, Lanes> buckets = new TreeMap<Integer, Lanes>();
+
+    /**
+     * Adds a party to the end of a lane.
+     * @param party The party to add.
+     * @param lane {@link #VIP}, {@link #PROMOTED} or {@link #REGULAR}.
+     */
+    void add(final Party party, final int lane) {
+        Lanes lanes = buckets.get(party.getPartySize());
+        if (lanes == null) {
+            lanes = new Lanes();
+            buckets.put(party.getPartySize(), lanes);
+        }
+        lanes.add(party, lane);
+    }
+
+    /**
+     * @param party The party to remove.
+     * @return Whether the party was in some lane.
+     */
+    boolean remove(final Party party) {
+        final Lanes lanes = buckets.get(party.getPartySize());
+        if (lanes == null) return false;
+        for (int lane = VIP; lane <= REGULAR; ++lane) {
+            if (lanes.remove(party, lane)) {
+                if (lanes.isEmpty()) buckets.remove(party.getPartySize());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void clear() {
+        buckets.clear();
+    }
+
+    /**
+     * @param minSize The smallest party size to consider.
+     * @param maxSize The largest party size to consider.
+     * @return The first party in priority order whose size is in the range, or null if there is none.
+     */
+    Party first(final int minSize, final int maxSize) {
+        if (minSize > maxSize) return null;
+        Party best = null;
+        int bestTier = Integer.MAX_VALUE;
+        for (Lanes lanes : buckets.subMap(minSize, true, maxSize, true).values()) {
+            for (int lane = VIP; lane <= REGULAR; ++lane) {
+                final Party head = lanes.head(lane);
+                if (head == null) continue;
+                final int tier = tier(lane);
+                if (tier < bestTier || (tier == bestTier && head.getId() < best.getId())) {
+                    best = head;
+                    bestTier = tier;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return Whether the first party comes before the second in priority order. Both must be in the buckets.
+     */
+    boolean precedes(final Party party, final Party other) {
+        final int tier = tier(party);
+        final int otherTier = tier(other);
+        return tier != otherTier ? tier < otherTier : party.getId() < other.getId();
+    }
+
+    /**
+     * @return The sizes of the waiting parties, smallest first.
+     */
+    NavigableSet<Integer> sizes() {
+        return buckets.navigableKeySet();
+    }
+
+    private int tier(final Party party) {
+        if (party.isVIP()) return 0;
+        return buckets.get(party.getPartySize()).lanes[PROMOTED].contains(party) ? 0 : 1;
+    }
+
+    private static int tier(final int lane) {
+        return lane == REGULAR ? 1 : 0;
+    }
+
+    /**
+     * The lanes of a single party size.
+     * The head of each lane is kept aside, so reading it allocates nothing; it is looked up again only when it leaves.
+     */
+    private static final class Lanes {
+        @SuppressWarnings("unchecked")
+        private final LinkedHashSet<Party>[] lanes = (LinkedHashSet<Party>[]) new LinkedHashSet<?>[] {
+                new LinkedHashSet<Party>(), new LinkedHashSet<Party>(), new LinkedHashSet<Party>()
+        };
+        private final Party[] heads = new Party[3];
+
+        private void add(final Party party, final int lane) {
+            if (lanes[lane].add(party) && heads[lane] == null) heads[lane] = party;
+        }
+
+        private boolean remove(final Party party, final int lane) {
+            if (!lanes[lane].remove(party)) return false;
+            if (heads[lane] == party) heads[lane] = lanes[lane].isEmpty() ? null : lanes[lane].iterator().next();
+            return true;
+        }
+
+        private Party head(final int lane) {
+            return heads[lane];
+        }
+
+        private boolean isEmpty() {
+            return lanes[VIP].isEmpty() && lanes[PROMOTED].isEmpty() && lanes[REGULAR].isEmpty();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package restaurant;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable sorted map from int keys to values: an AVL tree whose updates copy only the path
+ * from the root to the changed node and share every other node with the map they were made from.
+ * A put or remove costs O(log n) time and allocation, and a map once made never changes,
+ * so it can be handed to other threads without copying or locking.
+ * Each node also counts its subtree, so the map can be read by position as well as by key.
+ */
+final class PersistentMap<V> {
+    private static final PersistentMap<Object> EMPTY = new PersistentMap<Object>(null);
+
+    private final Node<V> root;
+
+    private PersistentMap(final Node<V> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> PersistentMap<V> empty() {
+        return (PersistentMap<V>) EMPTY;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * @return The value of the key, or null if the key is absent.
+     */
+    V get(final int key) {
+        Node<V> node = root;
+        while (node != null) {
+            if (key < node.key) node = node.left;
+            else if (key > node.key) node = node.right;
+            else return node.value;
+        }
+        return null;
+    }
+
+    /**
+     * @return The value with the given number of smaller keys. The index must be less than the size.
+     */
+    V valueAt(int index) {
+        Node<V> node = root;
+        while (true) {
+            final int left = size(node.left);
+            if (index < left) {
+                node = node.left;
+            } else if (index == left) {
+                return node.value;
+            } else {
+                index -= left + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * @return A map with the key set to the value, sharing all but O(log n) nodes with this one.
+     */
+    PersistentMap<V> put(final int key, final V value) {
+        return new PersistentMap<V>(put(root, key, value));
+    }
+
+    /**
+     * @return A map without the key, or this map if the key is absent.
+     */
+    PersistentMap<V> remove(final int key) {
+        final Node<V> removed = remove(root, key);
+        return removed == root ? this : new PersistentMap<V>(removed);
+    }
+
+    /**
+     * @return The values in key order, as an unmodifiable list read through from the tree.
+     */
+    List<V> values() {
+        return new AbstractList<V>() {
+            @Override
+            public V get(final int index) {
+                if (index < 0 || index >= size()) throw new IndexOutOfBoundsException(Integer.toString(index));
+                return valueAt(index);
+            }
+
+            @Override
+            public int size() {
+                return PersistentMap.this.size();
+            }
+
+            @Override
+            public Iterator<V> iterator() {
+                return new InOrder<V>(root);
+            }
+        };
+    }
+
+    private static <V> Node<V> put(final Node<V> node, final int key, final V value) {
+        if (node == null) return new Node<V>(key, value, null, null);
+        if (key < node.key) return balance(node.key, node.value, put(node.left, key, value), node.right);
+        if (key > node.key) return balance(node.key, node.value, node.left, put(node.right, key, value));
+        return new Node<V>(key, value, node.left, node.right);
+    }
+
+    private static <V> Node<V> remove(final Node<V> node, final int key) {
+        if (node == null) return null;
+        if (key < node.key) {
+            final Node<V> left = remove(node.left, key);
+            return left == node.left ? node : balance(node.key, node.value, left, node.right);
+        }
+        if (key > node.key) {
+            final Node<V> right = remove(node.right, key);
+            return right == node.right ? node : balance(node.key, node.value, node.left, right);
+        }
+        if (node.left == null) return node.right;
+        if (node.right == null) return node.left;
+        Node<V> successor = node.right;
+        while (successor.left != null) successor = successor.left;
+        return balance(successor.key, successor.value, node.left, removeFirst(node.right));
+    }
+
+    private static <V> Node<V> removeFirst(final Node<V> node) {
+        if (node.left == null) return node.right;
+        return balance(node.key, node.value, removeFirst(node.left), node.right);
+    }
+
+    /**
+     * Builds a node from subtrees whose heights differ by at most two, rotating it back into balance.
+     */
+    private static <V> Node<V> balance(final int key, final V value, final Node<V> left, final Node<V> right) {
+        final int leftHeight = height(left);
+        final int rightHeight = height(right);
+        if (leftHeight > rightHeight + 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node<V>(left.key, left.value, left.left, new Node<V>(key, value, left.right, right));
+            }
+            final Node<V> pivot = left.right;
+            return new Node<V>(pivot.key, pivot.value,
+                    new Node<V>(left.key, left.value, left.left, pivot.left), new Node<V>(key, value, pivot.right, right));
+        }
+        if (rightHeight > leftHeight + 1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node<V>(right.key, right.value, new Node<V>(key, value, left, right.left), right.right);
+            }
+            final Node<V> pivot = right.left;
+            return new Node<V>(pivot.key, pivot.value,
+                    new Node<V>(key, value, left, pivot.left), new Node<V>(right.key, right.value, pivot.right, right.right));
+        }
+        return new Node<V>(key, value, left, right);
+    }
+
+    private static int height(final Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(final Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<V> {
+        private final int key;
+        private final V value;
+        private final Node<V> left;
+        private final Node<V> right;
+        private final int height;
+        private final int size;
+
+        private Node(final int key, final V value, final Node<V> left, final Node<V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+        }
+    }
+
+    private static final class InOrder<V> implements Iterator<V> {
+        private final ArrayDeque<Node<V>> path = new ArrayDeque<Node<V>>();
+
+        private InOrder(final Node<V> root) {
+            descend(root);
+        }
+
+        private void descend(Node<V> node) {
+            while (node != null) {
+                path.push(node);
+                node = node.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !path.isEmpty();
+        }
+
+        @Override
+        public V next() {
+            if (path.isEmpty()) throw new NoSuchElementException();
+            final Node<V> node = path.pop();
+            descend(node.right);
+            return node.value;
+        }
+    }
+}
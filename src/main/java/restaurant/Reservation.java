@@ -0,0 +1,36 @@
+package restaurant;
+
+/**
+ * An advance booking of a table for a party over a time window.
+ * The window starts at {@code start} inclusive and ends at {@code end} exclusive,
+ * in whatever time unit the {@link ReservationBook} is used with.
+ */
+public final class Reservation {
+    private final Table table;
+    private final int partySize;
+    private final long start;
+    private final long end;
+
+    Reservation(Table table, int partySize, long start, long end) {
+        this.table = table;
+        this.partySize = partySize;
+        this.start = start;
+        this.end = end;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    public int getPartySize() {
+        return partySize;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+}
@@ -0,0 +1,254 @@
+package restaurant;
+
+import restaurant.exceptions.NonPositiveArgumentException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Advance reservations for the tables of a {@link Restaurant}.
+ * <p>
+ * Every table has its own schedule, an ordered map of its reservations by start time.
+ * Reservations on one table never overlap, so checking whether a table is free over a window
+ * only looks at the reservations on either side of its start, and listing the gaps in a period
+ * only visits the reservations inside it.
+ * Schedules are grouped by table capacity, so a query for a party size skips every table that is too small.
+ * It still tries the large enough tables one at a time, smallest first, so {@link #reserve(int, long, long)}
+ * and {@link #isAvailable(int, long, long)} cost O(t log r) in the worst case, for t tables that can seat the party
+ * and r reservations per table; they stop at the first free table, which on a lightly booked floor is the first one tried.
+ * <p>
+ * Times are plain longs in whatever unit the caller chooses, such as epoch milliseconds.
+ * The book follows the tables of the restaurant as they are added and removed.
+ * Removing a table takes its reservations out of the book; they are kept aside until
+ * {@link #takeDisplacedReservations()} hands them over, so the caller can rebook or notify those guests.
+ * Reservations are independent of the walk-in waitlist and of current occupancy.
+ */
+public final class ReservationBook implements RestaurantListener {
+    private final TreeMap<Integer, List<Schedule>> schedulesByCapacity = new TreeMap<Integer, List<Schedule>>();
+    private final Map<Table, Schedule> schedules = new HashMap<Table, Schedule>();
+    private List<Reservation> displaced = new ArrayList<Reservation>();
+
+    /**
+     * Creates an empty reservation book covering every current and future table of the restaurant.
+     * @param restaurant The restaurant whose tables can be reserved.
+     */
+    public ReservationBook(final Restaurant restaurant) {
+        for (Table table : restaurant.getEmptyTables()) tableAdded(table);
+        for (Table table : restaurant.getFilledTables()) tableAdded(table);
+        restaurant.addListener(this);
+    }
+
+    /**
+     * Reserves the smallest table that can seat the party and is free for the whole window.
+     * If the size is less than or equal to zero,
+     * this method throws an instance of {@link NonPositiveArgumentException}
+     * with the size filled in.
+     * @param size The size of the party.
+     * @param start The start of the window, inclusive.
+     * @param end The end of the window, exclusive.
+     * @return The reservation, or null if no table large enough is free for the whole window.
+     * @throws NonPositiveArgumentException
+     */
+    public Reservation reserve(final int size, final long start, final long end) throws NonPositiveArgumentException {
+        if (size <= 0) throw new NonPositiveArgumentException(size);
+        checkWindow(start, end);
+
+        for (List<Schedule> bucket : schedulesByCapacity.tailMap(size).values()) {
+            for (Schedule schedule : bucket) {
+                if (schedule.isFree(start, end)) {
+                    Reservation reservation = new Reservation(schedule.table, size, start, end);
+                    schedule.reservations.put(start, reservation);
+                    return reservation;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Cancels a reservation.
+     * @param reservation The reservation to cancel.
+     * @return Whether the reservation was in the book.
+     */
+    public boolean cancel(final Reservation reservation) {
+        if (reservation == null) return false;
+        Schedule schedule = schedules.get(reservation.getTable());
+        return schedule != null && schedule.reservations.remove(reservation.getStart(), reservation);
+    }
+
+    /**
+     * If the size is less than or equal to zero,
+     * this method throws an instance of {@link NonPositiveArgumentException}
+     * with the size filled in.
+     * @param size The size of the party.
+     * @param start The start of the window, inclusive.
+     * @param end The end of the window, exclusive.
+     * @return Whether some table that can seat the party is free for the whole window.
+     * @throws NonPositiveArgumentException
+     */
+    public boolean isAvailable(final int size, final long start, final long end) throws NonPositiveArgumentException {
+        if (size <= 0) throw new NonPositiveArgumentException(size);
+        checkWindow(start, end);
+        for (List<Schedule> bucket : schedulesByCapacity.tailMap(size).values()) {
+            for (Schedule schedule : bucket) {
+                if (schedule.isFree(start, end)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds every time in a period at which a reservation of the given size and duration could start.
+     * For each returned window, a reservation starting at any time from its start inclusive to its end exclusive
+     * fits on a single table and ends by the end of the period.
+     * If the size is less than or equal to zero,
+     * this method throws an instance of {@link NonPositiveArgumentException}
+     * with the size filled in.
+     * @param size The size of the party.
+     * @param from The start of the period, inclusive.
+     * @param to The end of the period, exclusive.
+     * @param duration The length of the reservation.
+     * @return The windows of possible start times, in order and not overlapping.
+     * @throws NonPositiveArgumentException
+     */
+    public List<TimeWindow> findAvailableStarts(final int size, final long from, final long to, final long duration)
+            throws NonPositiveArgumentException {
+        if (size <= 0) throw new NonPositiveArgumentException(size);
+        checkWindow(from, to);
+        if (duration <= 0) throw new IllegalArgumentException("duration must be positive: " + duration);
+
+        List<TimeWindow> starts = new ArrayList<TimeWindow>();
+        for (List<Schedule> bucket : schedulesByCapacity.tailMap(size).values()) {
+            for (Schedule schedule : bucket) {
+                schedule.addStarts(from, to, duration, starts);
+            }
+        }
+        return merge(starts);
+    }
+
+    /**
+     * @param table A table of the restaurant.
+     * @param from The start of the period, inclusive.
+     * @param to The end of the period, exclusive.
+     * @return The reservations on the table that overlap the period, in order of start time.
+     */
+    public List<Reservation> getReservations(final Table table, final long from, final long to) {
+        Schedule schedule = schedules.get(table);
+        if (schedule == null) return Collections.emptyList();
+
+        List<Reservation> result = new ArrayList<Reservation>();
+        for (Reservation reservation : schedule.overlapping(from, to).values()) {
+            if (reservation.getEnd() > from) result.add(reservation);
+        }
+        return result;
+    }
+
+    /**
+     * Hands over the reservations whose tables have been removed from the restaurant since the last call,
+     * in order of removal and then of start time. They are no longer in the book.
+     * @return The displaced reservations, possibly none.
+     */
+    public List<Reservation> takeDisplacedReservations() {
+        if (displaced.isEmpty()) return Collections.emptyList();
+        List<Reservation> result = displaced;
+        displaced = new ArrayList<Reservation>();
+        return result;
+    }
+
+    @Override
+    public void tableAdded(final Table table) {
+        Schedule schedule = new Schedule(table);
+        List<Schedule> bucket = schedulesByCapacity.get(table.getTableCapacity());
+        if (bucket == null) {
+            bucket = new ArrayList<Schedule>();
+            schedulesByCapacity.put(table.getTableCapacity(), bucket);
+        }
+        schedule.slot = bucket.size();
+        bucket.add(schedule);
+        schedules.put(table, schedule);
+    }
+
+    @Override
+    public void tableRemoved(final Table table) {
+        Schedule schedule = schedules.remove(table);
+        if (schedule == null) return;
+        displaced.addAll(schedule.reservations.values());
+
+        List<Schedule> bucket = schedulesByCapacity.get(schedule.capacity);
+        Schedule last = bucket.remove(bucket.size() - 1);
+        if (last != schedule) {
+            bucket.set(schedule.slot, last);
+            last.slot = schedule.slot;
+        }
+        if (bucket.isEmpty()) schedulesByCapacity.remove(schedule.capacity);
+    }
+
+    private static void checkWindow(final long start, final long end) {
+        if (end <= start) throw new IllegalArgumentException("window must end after it starts: " + start + ".." + end);
+    }
+
+    private static List<TimeWindow> merge(final List<TimeWindow> windows) {
+        if (windows.size() < 2) return windows;
+        Collections.sort(windows, (w1, w2) -> Long.compare(w1.getStart(), w2.getStart()));
+
+        List<TimeWindow> merged = new ArrayList<TimeWindow>();
+        TimeWindow current = windows.get(0);
+        for (int i = 1; i < windows.size(); ++i) {
+            TimeWindow next = windows.get(i);
+            if (next.getStart() <= current.getEnd()) {
+                if (next.getEnd() > current.getEnd()) current = new TimeWindow(current.getStart(), next.getEnd());
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
+
+    /**
+     * The reservations of one table, keyed by start time.
+     */
+    private static final class Schedule {
+        private final Table table;
+        private final int capacity;
+        private final TreeMap<Long, Reservation> reservations = new TreeMap<Long, Reservation>();
+        private int slot;
+
+        private Schedule(Table table) {
+            this.table = table;
+            this.capacity = table.getTableCapacity();
+        }
+
+        private boolean isFree(final long start, final long end) {
+            Map.Entry<Long, Reservation> before = reservations.floorEntry(start);
+            if (before != null && before.getValue().getEnd() > start) return false;
+            Long after = reservations.higherKey(start);
+            return after == null || after >= end;
+        }
+
+        /**
+         * @return The reservations that may overlap the period: the last one starting at or before it and all starting in it.
+         */
+        private NavigableMap<Long, Reservation> overlapping(final long from, final long to) {
+            Long first = reservations.floorKey(from);
+            return reservations.subMap(first != null ? first : from, true, to, false);
+        }
+
+        private void addStarts(final long from, final long to, final long duration, final List<TimeWindow> starts) {
+            long cursor = from;
+            for (Reservation reservation : overlapping(from, to).values()) {
+                if (reservation.getStart() - cursor >= duration) {
+                    starts.add(new TimeWindow(cursor, reservation.getStart() - duration + 1));
+                }
+                cursor = Math.max(cursor, reservation.getEnd());
+            }
+            if (to - cursor >= duration) starts.add(new TimeWindow(cursor, to - duration + 1));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package restaurant;
+
+import restaurant.exceptions.EmptyTableException;
+import restaurant.exceptions.MissingPartyException;
+import restaurant.exceptions.MissingTableException;
+import restaurant.exceptions.NoTablesAvailableException;
+import restaurant.exceptions.NonPositiveArgumentException;
+import restaurant.exceptions.OccupiedTableException;
+
+import java.util.List;
+
+/**
+ * The operations shared by every restaurant implementation.
+ * See {@link Restaurant} for the full contract of each operation.
+ */
+public interface ReservationSystem {
+    /**
+     * Creates a table with the given capacity and adds it to the restaurant.
+     * @param capacity The capacity of the table.
+     * @return A reference to the new table.
+     * @throws NonPositiveArgumentException
+     */
+    Table addTable(int capacity) throws NonPositiveArgumentException;
+
+    /**
+     * Removes the specified empty table from the restaurant.
+     * @param table The table to remove from the restaurant.
+     * @throws OccupiedTableException
+     * @throws MissingTableException
+     */
+    void removeTable(Table table) throws OccupiedTableException, MissingTableException;
+
+    /**
+     * Creates a party with the given size and VIP status and adds it to the queue of parties waiting for a table.
+     * @param size The size of the party.
+     * @param isVIP Whether the party is a VIP.
+     * @return A reference to the new party.
+     * @throws NonPositiveArgumentException
+     */
+    Party bookParty(int size, boolean isVIP) throws NonPositiveArgumentException;
+
+    /**
+     * Removes the specified party from the restaurant.
+     * @param party The party to remove from the restaurant.
+     * @throws MissingPartyException
+     */
+    void removeParty(Party party) throws MissingPartyException;
+
+    /**
+     * Seats the next eligible party to an empty table.
+     * @throws NoTablesAvailableException
+     */
+    void seatParty() throws NoTablesAvailableException;
+
+    /**
+     * Removes a party from an occupied table.
+     * @param table The table to empty.
+     * @return The party that was seated at the table.
+     * @throws EmptyTableException
+     */
+    Party emptyTable(Table table) throws EmptyTableException;
+
+    /**
+     * @return The tables currently occupied by a party.
+     */
+    List<Table> getFilledTables();
+
+    /**
+     * @return The tables not occupied by a party.
+     */
+    List<Table> getEmptyTables();
+
+    /**
+     * @return The number of tables currently occupied by a party.
+     */
+    int filledTableCount();
+
+    /**
+     * @return The number of tables not occupied by a party.
+     */
+    int emptyTableCount();
+
+    /**
+     * @return The parties waiting for a table, in seating priority order.
+     */
+    List<Party> getUnseatedParties();
+}
@@ -10,9 +10,15 @@ import restaurant.exceptions.OccupiedTableException;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.PriorityQueue;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
-public class Restaurant {
+public class Restaurant implements ReservationSystem {
     /**
      * Creates a table with the given capacity and adds it to the restaurant.
      * If the capacity is less than or equal to zero,
@@ -23,13 +29,69 @@ public class Restaurant {
      * @throws NonPositiveArgumentException
      */
     
-    private List<Table> tableList = new ArrayList<Table>();
-    private PriorityQueue<Party> partyQueue = new PriorityQueue<Party>((p1, p2) -> Boolean.compare(p2.isVIP(), p1.isVIP()));
-    
+    private List<Table> emptyTableList = new ArrayList<Table>();
+    private List<Table> filledTableList = new ArrayList<Table>();
+    private List<Table> emptyTableView = Collections.unmodifiableList(emptyTableList);
+    private List<Table> filledTableView = Collections.unmodifiableList(filledTableList);
+    private CapacityIndex freeTables = new CapacityIndex();
+    private Waitlist waitlist = new Waitlist();
+    private List<RestaurantListener> listeners = new ArrayList<RestaurantListener>();
+    private boolean autoSeat = false;
+    private int nextTableId = 1;
+    private int nextPartyId = 1;
+    private TableCombiner combiner = new TableCombiner();
+    private int adjacencyCount = 0;
+    private int maxJoinedTables = 3;
+    private SeatingPolicy policy = new BestFitPolicy();
+    private RestaurantMetrics metrics = null;
+    private volatile ViewTracker views = null;
+    private List<Party> unseatedParties = Collections.emptyList();
+    private int unseatedPartiesVersion = 0;
+    private final LongSupplier clock;
+    private final TurnoverStats turnover = new TurnoverStats();
+    private final TreeMap<Integer, LongHeap> estimateHeaps = new TreeMap<Integer, LongHeap>();
+    // The heaps of the capacities in use during an estimate, in order of capacity, reused from one estimate to the next.
+    private int[] estimateCapacities = new int[0];
+    private LongHeap[] estimateOrder = new LongHeap[0];
+    private long[] estimateMeans = new long[0];
+    private long defaultDiningTime = TimeUnit.HOURS.toNanos(1);
+
+    public Restaurant() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * @param clock The source of the current time for dining-time statistics and wait estimates,
+     * {@link System#nanoTime()} by default.
+     */
+    public Restaurant(final LongSupplier clock) {
+        this.clock = clock;
+        policy.attach(this);
+    }
+
     public Table addTable(final int capacity) throws NonPositiveArgumentException {
         if (capacity <= 0) throw new NonPositiveArgumentException(capacity);
+        return createTable(nextTableId++, capacity);
+    }
+
+    /**
+     * Recreates a table with a known id, for rebuilding a restaurant from a journal or snapshot.
+     */
+    Table restoreTable(final int id, final int capacity) {
+        nextTableId = Math.max(nextTableId, id + 1);
+        return createTable(id, capacity);
+    }
+
+    private Table createTable(final int id, final int capacity) {
         Table newTable = new Table(capacity);
-        tableList.add(newTable);
+        newTable.id = id;
+        newTable.restaurant = this;
+        attach(emptyTableList, newTable);
+        freeTables.add(newTable);
+        policy.tableAdded(newTable);
+        for (int i = 0; i < listeners.size(); ++i) listeners.get(i).tableAdded(newTable);
+        if (autoSeat) seatWaiting(Integer.MAX_VALUE, null);
+        completeChange();
         return newTable;
     }
 
@@ -43,23 +105,38 @@ public class Restaurant {
      * @throws OccupiedTableException
      */
     public void removeTable(final Table table) throws OccupiedTableException, MissingTableException {
-        boolean tableFound = false;
-        
-        if (table == null) throw new MissingTableException(table);
+        switch (tryRemoveTable(table)) {
+            case MISSING_TABLE: throw new MissingTableException(table);
+            case OCCUPIED_TABLE: throw new OccupiedTableException(table, table.getParty());
+            default: break;
+        }
+    }
+
+    /**
+     * Removes the specified table from the restaurant without throwing.
+     * @param table The table to remove from the restaurant.
+     * @return {@link Status#OK} if the table was removed, {@link Status#OCCUPIED_TABLE} if it is occupied,
+     * or {@link Status#MISSING_TABLE} if it is null or does not exist.
+     */
+    public Status tryRemoveTable(final Table table) {
+        if (table == null || table.restaurant != this) return Status.MISSING_TABLE;
+        if (table.isOccupied()) return Status.OCCUPIED_TABLE;
         
-        for (int i = tableList.size() - 1; i >= 0; --i) {
-            if (tableList.get(i) == table) {
-                if (table.isOccupied()) {
-                    throw new OccupiedTableException(table, table.getParty());
-                } else {
-                    tableList.remove(i);
-                    tableFound = true;
-                    break;
-                }
+        detach(emptyTableList, table);
+        freeTables.remove(table);
+        if (table.adjacent != null) {
+            for (Table other : table.adjacent) {
+                other.adjacent.remove(table);
+                if (other.adjacent.isEmpty()) other.adjacent = null;
+                --adjacencyCount;
             }
+            table.adjacent = null;
         }
-        
-        if (!tableFound) throw new MissingTableException(table);
+        table.restaurant = null;
+        policy.tableRemoved(table);
+        for (int i = 0; i < listeners.size(); ++i) listeners.get(i).tableRemoved(table);
+        completeChange();
+        return Status.OK;
     }
 
     /**
@@ -74,10 +151,30 @@ public class Restaurant {
      */
     public Party bookParty(final int size, final boolean isVIP) throws NonPositiveArgumentException {
         if (size <= 0) throw new NonPositiveArgumentException(size);
-            
+        if (metrics == null) return createParty(nextPartyId++, size, isVIP);
+
+        long start = System.nanoTime();
+        Party party = createParty(nextPartyId++, size, isVIP);
+        metrics.recordBookParty(System.nanoTime() - start);
+        return party;
+    }
+
+    /**
+     * Recreates a waiting party with a known id, for rebuilding a restaurant from a journal or snapshot.
+     */
+    Party restoreParty(final int id, final int size, final boolean isVIP) {
+        nextPartyId = Math.max(nextPartyId, id + 1);
+        return createParty(id, size, isVIP);
+    }
+
+    private Party createParty(final int id, final int size, final boolean isVIP) {
         Party newParty = new Party(size, isVIP);
-        partyQueue.add(newParty);
-        
+        newParty.id = id;
+        waitlist.add(newParty);
+        policy.partyBooked(newParty);
+        for (int i = 0; i < listeners.size(); ++i) listeners.get(i).partyBooked(newParty);
+        if (autoSeat) seatWaiting(Integer.MAX_VALUE, null);
+        completeChange();
         return newParty;
     }
 
@@ -89,8 +186,58 @@ public class Restaurant {
      * @param party The party to remove from the restaurant.
      */
     public void removeParty(final Party party) throws MissingPartyException {
-        if (!partyQueue.contains(party)) throw new MissingPartyException(party);
-        if (party.getSeatedTable() != null) party.getSeatedTable().freeTable();
+        if (tryRemoveParty(party) == Status.MISSING_PARTY) throw new MissingPartyException(party);
+    }
+
+    /**
+     * Removes the specified party from the restaurant without throwing.
+     * A waiting party leaves the queue in constant time. A seated party leaves its tables,
+     * which are reported emptied before the party is reported removed and can be given to waiting parties at once.
+     * @param party The party to remove from the restaurant.
+     * @return {@link Status#OK} if the party was removed, or {@link Status#MISSING_PARTY} if it does not exist.
+     */
+    public Status tryRemoveParty(final Party party) {
+        if (!removePartyQuietly(party)) return Status.MISSING_PARTY;
+        if (autoSeat) seatWaiting(Integer.MAX_VALUE, null);
+        completeChange();
+        return Status.OK;
+    }
+
+    /**
+     * Removes several parties at once, such as the no-shows of a sitting, as {@link #tryRemoveParty(Party)} would.
+     * Parties that do not exist are skipped. In auto-seat mode, the freed tables are given out once every party is gone.
+     * @param parties The parties to remove from the restaurant.
+     * @return The number of parties removed.
+     */
+    public int removeParties(final Collection<? extends Party> parties) {
+        int removed = 0;
+        for (Party party : parties) {
+            if (removePartyQuietly(party)) ++removed;
+        }
+        if (removed > 0 && autoSeat) seatWaiting(Integer.MAX_VALUE, null);
+        completeChange();
+        return removed;
+    }
+
+    private boolean removePartyQuietly(final Party party) {
+        if (!waitlist.remove(party)) {
+            if (!isSeatedHere(party)) return false;
+            List<Table> tables = party.getSeatedTables();
+            for (int i = 0; i < tables.size(); ++i) {
+                Table table = tables.get(i);
+                if (table.isOccupied() && table.getParty() == party) release(table);
+            }
+            party.joinedTables = null;
+        }
+        policy.partyRemoved(party);
+        for (int i = 0; i < listeners.size(); ++i) listeners.get(i).partyRemoved(party);
+        return true;
+    }
+
+    private boolean isSeatedHere(final Party party) {
+        if (party == null) return false;
+        Table table = party.getSeatedTable();
+        return table != null && table.restaurant == this && table.isOccupied() && table.getParty() == party;
     }
 
     /**
@@ -103,38 +250,54 @@ public class Restaurant {
      * this method throws an instance of {@link NoTablesAvailableException}
      * with the first party in the queue filled in.
      * If no parties are currently waiting, this method does nothing.
+     * These are the rules of the default {@link BestFitPolicy}; {@link #setSeatingPolicy(SeatingPolicy)} changes them.
      * @throws NoTablesAvailableException
      */
     public void seatParty() throws NoTablesAvailableException {
-    	if (partyQueue.size() == 0) return;
-    	
-    	Party[] waitingParties = (Party[]) partyQueue.toArray(new Party[partyQueue.size()]);
-    	Arrays.sort(waitingParties, (p1, p2) -> Boolean.compare(p2.isVIP(), p1.isVIP()));
-    	
-    	boolean tableFound = false;
-    	
-    	for (Party party : waitingParties) {
-    		List<Table> possibleTables = new ArrayList<Table>();
-        	for (Table table : tableList) {
-        		if (!table.isOccupied() && table.getTableCapacity() >= party.getPartySize()) possibleTables.add(table);
-        	}
-        	
-        	if (possibleTables.size() == 0) continue;
-        	
-        	tableFound = true;
-        	Table bestTable = possibleTables.get(0);
-        	
-        	for (Table table : possibleTables) {
-        		if (table.getTableCapacity() < bestTable.getTableCapacity()) bestTable = table;
-        	}
-        	
-        	partyQueue.remove(party);
-        	party.seatAtTable(bestTable);
-        	bestTable.OccupyTable(party);
-        	break;
-    	}
-    	
-    	if (!tableFound) throw new NoTablesAvailableException(partyQueue.peek());
+    	if (trySeatParty() == Status.NO_TABLES_AVAILABLE) throw new NoTablesAvailableException(waitlist.first());
+    }
+
+    /**
+     * Seats the next eligible party to an empty table without throwing, following the seating policy.
+     * @return {@link Status#OK} if a party was seated, {@link Status#NO_TABLES_AVAILABLE} if no waiting party fits
+     * at any empty table, or {@link Status#NO_PARTIES_WAITING} if the queue is empty.
+     */
+    public Status trySeatParty() {
+    	if (waitlist.isEmpty()) return Status.NO_PARTIES_WAITING;
+    	if (metrics == null) return seatWaiting(1, null) == 0 ? Status.NO_TABLES_AVAILABLE : Status.OK;
+
+    	long start = System.nanoTime();
+    	boolean seated = seatWaiting(1, null) > 0;
+    	metrics.recordSeatParty(System.nanoTime() - start, !seated);
+    	return seated ? Status.OK : Status.NO_TABLES_AVAILABLE;
+    }
+
+    /**
+     * Seats every waiting party that fits at an empty table, in one pass over the queue.
+     * Parties are considered in the same order and given the same tables as repeated calls to {@link #seatParty()}.
+     * @return The seatings made, in the order they were made. The list is empty if no party could be seated.
+     */
+    public List<Seating> seatAll() {
+        List<Seating> seatings = new ArrayList<Seating>();
+        seatWaiting(Integer.MAX_VALUE, seatings);
+        return seatings;
+    }
+
+    /**
+     * Seats at most the given number of waiting parties, in one pass over the queue.
+     * Parties are considered in the same order and given the same tables as repeated calls to {@link #seatParty()}.
+     * If the limit is less than or equal to zero,
+     * this method throws an instance of {@link NonPositiveArgumentException}
+     * with the limit filled in.
+     * @param limit The maximum number of parties to seat.
+     * @return The seatings made, in the order they were made. The list is empty if no party could be seated.
+     * @throws NonPositiveArgumentException
+     */
+    public List<Seating> seatUpTo(final int limit) throws NonPositiveArgumentException {
+        if (limit <= 0) throw new NonPositiveArgumentException(limit);
+        List<Seating> seatings = new ArrayList<Seating>();
+        seatWaiting(limit, seatings);
+        return seatings;
     }
 
     /**
@@ -145,50 +308,564 @@ public class Restaurant {
      * @throws EmptyTableException
      */
     public Party emptyTable(final Table table) throws EmptyTableException {        
-        Party freedParty = null;
-
         if (!table.isOccupied()) throw new EmptyTableException(table);
+        if (table.restaurant != this) return null;
         
-        for (Table t : tableList) {
-            if (t == table) {
-                t.freeTable();
-                freedParty = t.getParty();
-                break;
+        long start = metrics != null ? System.nanoTime() : 0;
+        Party party = table.getParty();
+        if (party != null && party.joinedTables != null && party.joinedTables.contains(table)) {
+            for (Table joined : party.joinedTables) {
+                if (joined.isOccupied() && joined.getParty() == party) release(joined);
             }
+            party.joinedTables = null;
+        } else {
+            release(table);
         }
-        return freedParty;
+        if (autoSeat) seatWaiting(Integer.MAX_VALUE, null);
+        completeChange();
+        if (metrics != null) metrics.recordEmptyTable(System.nanoTime() - start);
+        return party;
     }
 
     /**
-     * @return The list of tables currently occupied by a party.
+     * Marks two tables as adjacent, so they can be pushed together for a party too large for any single empty table.
+     * When no single empty table fits a party, seating looks for the fewest adjacent empty tables that together seat it,
+     * wasting as few seats as possible, up to {@link #getMaxJoinedTables()} tables.
+     * If either table is null or does not exist, this method throws an instance of {@link MissingTableException}
+     * with that table filled in.
+     * @param table One of the tables.
+     * @param other The other table.
+     * @throws MissingTableException
      */
-    public List<Table> getFilledTables() {
-        List<Table> result = new ArrayList<Table>();
-        for (Table table : tableList) {
-            if (table.isOccupied()) result.add(table);
+    public void joinTables(final Table table, final Table other) throws MissingTableException {
+        if (table == null || table.restaurant != this) throw new MissingTableException(table);
+        if (other == null || other.restaurant != this) throw new MissingTableException(other);
+        if (table == other || (table.adjacent != null && table.adjacent.contains(other))) return;
+
+        if (table.adjacent == null) table.adjacent = new ArrayList<Table>(4);
+        if (other.adjacent == null) other.adjacent = new ArrayList<Table>(4);
+        table.adjacent.add(other);
+        other.adjacent.add(table);
+        ++adjacencyCount;
+        policy.tablesJoined(table, other);
+        for (int i = 0; i < listeners.size(); ++i) listeners.get(i).tablesJoined(table, other);
+        if (autoSeat) seatWaiting(Integer.MAX_VALUE, null);
+        completeChange();
+    }
+
+    /**
+     * Marks two tables as no longer adjacent.
+     * If either table is null or does not exist, this method throws an instance of {@link MissingTableException}
+     * with that table filled in.
+     * @param table One of the tables.
+     * @param other The other table.
+     * @throws MissingTableException
+     */
+    public void separateTables(final Table table, final Table other) throws MissingTableException {
+        if (table == null || table.restaurant != this) throw new MissingTableException(table);
+        if (other == null || other.restaurant != this) throw new MissingTableException(other);
+        if (table.adjacent == null || !table.adjacent.remove(other)) return;
+
+        other.adjacent.remove(table);
+        if (table.adjacent.isEmpty()) table.adjacent = null;
+        if (other.adjacent.isEmpty()) other.adjacent = null;
+        --adjacencyCount;
+        policy.tablesSeparated(table, other);
+        for (int i = 0; i < listeners.size(); ++i) listeners.get(i).tablesSeparated(table, other);
+        completeChange();
+    }
+
+    /**
+     * @return The largest number of adjacent tables that may be pushed together for one party.
+     */
+    public int getMaxJoinedTables() {
+        return maxJoinedTables;
+    }
+
+    /**
+     * Sets the largest number of adjacent tables that may be pushed together for one party; 1 turns joining off.
+     * If the limit is less than or equal to zero,
+     * this method throws an instance of {@link NonPositiveArgumentException}
+     * with the limit filled in.
+     * @param maxJoinedTables The new limit.
+     * @throws NonPositiveArgumentException
+     */
+    public void setMaxJoinedTables(final int maxJoinedTables) throws NonPositiveArgumentException {
+        if (maxJoinedTables <= 0) throw new NonPositiveArgumentException(maxJoinedTables);
+        this.maxJoinedTables = maxJoinedTables;
+    }
+
+    /**
+     * Replaces the policy that decides which party is seated next and where.
+     * The new policy indexes the current tables and waiting parties, and the old one drops its indexes.
+     * Different policies can be used at different times of day; the default is a {@link BestFitPolicy}.
+     * @param policy The new policy, which must not be serving another restaurant.
+     */
+    public void setSeatingPolicy(final SeatingPolicy policy) {
+        if (policy == null) throw new NullPointerException("policy");
+        if (policy == this.policy) return;
+        policy.attach(this);
+        this.policy.detach(this);
+        this.policy = policy;
+    }
+
+    /**
+     * @return The policy that decides which party is seated next and where.
+     */
+    public SeatingPolicy getSeatingPolicy() {
+        return policy;
+    }
+
+    /**
+     * Installs instrumentation that measures this restaurant from now on, replacing any installed before.
+     * The metrics start from the tables and waiting parties the restaurant already has.
+     * While no metrics are installed, measuring costs nothing but a null check.
+     * @param metrics The metrics to record into, or null to stop measuring.
+     */
+    public void setMetrics(final RestaurantMetrics metrics) {
+        if (metrics == this.metrics) return;
+        if (this.metrics != null) {
+            listeners.remove(this.metrics);
+            this.metrics.detach(this);
+        }
+        this.metrics = metrics;
+        if (metrics != null) {
+            metrics.attach(this);
+            listeners.add(metrics);
         }
-        return result;
     }
 
     /**
-     * @return The list of tables not occupied by a party.
+     * @return The installed metrics, or null if the restaurant is not being measured.
      */
-    public List<Table> getEmptyTables() {
-        List<Table> result = new ArrayList<Table>();
-        for (Table table : tableList) {
-            if (!table.isOccupied()) result.add(table);
+    public RestaurantMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Turns consistent snapshots on or off. While they are on, every change also updates the views returned by
+     * {@link #snapshot()}, at a cost of O(log n) per change; turning them on first captures the current state.
+     * @param enabled Whether snapshots should be kept.
+     */
+    public void setSnapshotsEnabled(final boolean enabled) {
+        if (enabled == (views != null)) return;
+        if (enabled) {
+            views = new ViewTracker(this);
+            listeners.add(views);
+        } else {
+            listeners.remove(views);
+            views = null;
         }
-        return result;
     }
 
     /**
-     * @return The list of parties waiting for a table, with the earliest booked parties at the beginning of the list.
+     * @return Whether snapshots are kept.
+     */
+    public boolean isSnapshotsEnabled() {
+        return views != null;
+    }
+
+    /**
+     * Returns an immutable view of the restaurant as it stood after the latest change.
+     * A change is published whole, with any seating it set off, so a listener reading the view mid-change still sees the one before.
+     * Unlike every other method, this one may be called from any thread while the restaurant is being changed;
+     * it takes no lock and costs constant time.
+     * If snapshots are not enabled, this method throws an instance of {@link IllegalStateException}.
+     * @return The current view.
+     * @see #setSnapshotsEnabled(boolean)
+     */
+    public RestaurantView snapshot() {
+        ViewTracker tracker = views;
+        if (tracker == null) throw new IllegalStateException("Snapshots are not enabled");
+        return tracker.current();
+    }
+
+    /**
+     * Turns auto-seat mode on or off.
+     * While auto-seat is on, the restaurant seats parties as soon as a change makes it possible,
+     * asking the seating policy until no waiting party fits.
+     * The policies keep their own indexes, so a change that makes nobody seatable costs a few lookups.
+     * Turning auto-seat on first seats every party that already fits.
+     * Seatings are reported to listeners through {@link RestaurantListener#partySeated(Seating)}.
+     * @param autoSeat Whether parties should be seated automatically.
+     * @return The seatings made when turning auto-seat on, or an empty list.
+     */
+    public List<Seating> setAutoSeat(final boolean autoSeat) {
+        this.autoSeat = autoSeat;
+        return autoSeat ? seatAll() : Collections.<Seating>emptyList();
+    }
+
+    /**
+     * @return Whether parties are seated automatically as tables and parties arrive.
+     */
+    public boolean isAutoSeat() {
+        return autoSeat;
+    }
+
+    /**
+     * Registers a listener to be told about every later change to the restaurant.
+     * @param listener The listener to add.
+     */
+    public void addListener(final RestaurantListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener The listener to stop notifying.
+     */
+    public void removeListener(final RestaurantListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return A snapshot of the tables currently occupied by a party, in no particular order.
+     */
+    public List<Table> getFilledTables() {
+        return new ArrayList<Table>(filledTableList);
+    }
+
+    /**
+     * @return A snapshot of the tables not occupied by a party, in no particular order.
+     */
+    public List<Table> getEmptyTables() {
+        return new ArrayList<Table>(emptyTableList);
+    }
+
+    /**
+     * Returns a read-only view of the tables currently occupied by a party, kept up to date as tables change state,
+     * for callers that poll often and cannot afford a copy.
+     * The view is in no particular order, and a table moving between the filled and empty tables reorders it,
+     * so it must not be iterated across a change to the restaurant; use {@link #getFilledTables()} for that.
+     * @return The live view of the filled tables.
+     */
+    public List<Table> getFilledTablesView() {
+        return filledTableView;
+    }
+
+    /**
+     * Returns a read-only view of the tables not occupied by a party, with the same caveats as {@link #getFilledTablesView()}.
+     * @return The live view of the empty tables.
+     */
+    public List<Table> getEmptyTablesView() {
+        return emptyTableView;
+    }
+
+    /**
+     * @return The number of tables currently occupied by a party.
+     */
+    public int filledTableCount() {
+        return filledTableList.size();
+    }
+
+    /**
+     * @return The number of tables not occupied by a party.
+     */
+    public int emptyTableCount() {
+        return emptyTableList.size();
+    }
+
+    /**
+     * Returns the parties waiting for a table, in booking order per lane:
+     * VIP parties first, then the others, each with the earliest booked parties first.
+     * @return A new list of the parties waiting for a table, which the caller may change.
      */
     public List<Party> getUnseatedParties() {
-    	List<Party> unseatedParties = new ArrayList<Party>();
-    	for (Party party : (Party[]) partyQueue.toArray(new Party[partyQueue.size()])) {
-    		unseatedParties.add(party);
-    	}
+        return new ArrayList<Party>(getSharedUnseatedParties());
+    }
+
+    /**
+     * Returns an immutable snapshot of the parties waiting for a table, in the order of {@link #getUnseatedParties()}.
+     * The same snapshot is shared by every caller until the waitlist next changes,
+     * so polling an unchanged waitlist costs nothing.
+     * @return The shared, unmodifiable list of parties waiting for a table.
+     */
+    public List<Party> getSharedUnseatedParties() {
+        if (unseatedPartiesVersion != waitlist.version()) {
+            Party[] parties = new Party[waitlist.size()];
+            int i = 0;
+            for (Party party = waitlist.first(); party != null; party = waitlist.next(party)) parties[i++] = party;
+            unseatedParties = Collections.unmodifiableList(Arrays.asList(parties));
+            unseatedPartiesVersion = waitlist.version();
+        }
         return unseatedParties;
     }
+
+    /**
+     * Passes every waiting party to an action, in the order of {@link #getUnseatedParties()}, without copying the queue.
+     * The action must not modify the restaurant.
+     * @param action The action to run for each party.
+     */
+    public void forEachWaiting(final Consumer<? super Party> action) {
+        for (Party party = waitlist.first(); party != null; party = waitlist.next(party)) action.accept(party);
+    }
+
+    /**
+     * @param index A position in the order of {@link #getUnseatedParties()}, from 0.
+     * @return The party waiting at that position, read from the shared snapshot.
+     * @throws IndexOutOfBoundsException If no party waits at that position.
+     */
+    public Party waitingPartyAt(final int index) {
+        return getSharedUnseatedParties().get(index);
+    }
+
+    /**
+     * @return The number of parties waiting for a table.
+     */
+    public int waitingCount() {
+        return waitlist.size();
+    }
+
+    /**
+     * Estimates how long a waiting party will wait for a table, in the unit of the clock.
+     * The estimate plays the queue forward from now: each occupied table is expected to free up when its party
+     * has stayed the mean dining time of its capacity, and each party, in queue order, takes the fitting table
+     * expected to free up first, which then stays busy for another mean dining time.
+     * Until a table of some capacity has been emptied, the mean over all capacities is used,
+     * and until any table has, the default dining time.
+     * If the party is not waiting, this method throws an instance of {@link MissingPartyException}
+     * with the specified party filled in.
+     * @param party The waiting party.
+     * @return The expected wait, or -1 if no table is large enough to seat the party.
+     * @throws MissingPartyException
+     */
+    public long estimateWait(final Party party) throws MissingPartyException {
+        if (!waitlist.contains(party)) throw new MissingPartyException(party);
+        return estimateWaits(party, null);
+    }
+
+    /**
+     * Estimates the wait of every waiting party at once, as {@link #estimateWait(Party)} would,
+     * in a single pass over the queue.
+     * @return The expected waits, in the order of {@link #getUnseatedParties()}.
+     */
+    public long[] estimateWaits() {
+        long[] waits = new long[waitlist.size()];
+        estimateWaits(null, waits);
+        return waits;
+    }
+
+    /**
+     * @param capacity A table capacity.
+     * @return The mean time parties have recently spent at tables of the capacity, in the unit of the clock,
+     * or the fallback described by {@link #estimateWait(Party)} if none has been emptied yet.
+     */
+    public long getMeanDiningTime(final int capacity) {
+        double mean = turnover.mean(capacity);
+        return mean < 0 ? defaultDiningTime : (long) mean;
+    }
+
+    /**
+     * Sets the dining time assumed before any table has been emptied, one hour by default.
+     * If the time is less than or equal to zero, this method throws an instance of {@link IllegalArgumentException}.
+     * @param defaultDiningTime The dining time, in the unit of the clock.
+     */
+    public void setDefaultDiningTime(final long defaultDiningTime) {
+        if (defaultDiningTime <= 0) throw new IllegalArgumentException("dining time must be positive: " + defaultDiningTime);
+        this.defaultDiningTime = defaultDiningTime;
+    }
+
+    /**
+     * Seats the parties chosen by the seating policy, one at a time, until it finds none that fits.
+     * @param limit The maximum number of parties to seat.
+     * @param seatings The list to record seatings in, or null if they are not needed.
+     * @return The number of parties seated.
+     */
+    private int seatWaiting(final int limit, final List<Seating> seatings) {
+        int seated = 0;
+        while (seated < limit && !waitlist.isEmpty() && !freeTables.isEmpty()) {
+            Seating seating = policy.next();
+            if (seating == null) break;
+            seat(seating);
+            if (seatings != null) seatings.add(seating);
+            ++seated;
+        }
+        completeChange();
+        return seated;
+    }
+
+    /**
+     * Tells the listeners that a change, with any seating it set off, is complete and the restaurant is consistent again.
+     * Called at the end of each change, so a change that fires several events can be acted on as one.
+     */
+    private void completeChange() {
+        for (int i = 0; i < listeners.size(); ++i) listeners.get(i).changeCompleted();
+    }
+
+    /**
+     * Seats a waiting party at a specific empty table, for rebuilding a restaurant from a journal or snapshot.
+     * @return Whether the party was waiting and the table was empty.
+     */
+    boolean restoreSeating(final Party party, final Table table) {
+        if (!waitlist.contains(party) || !freeTables.contains(table)) return false;
+        seat(new Seating(party, table));
+        completeChange();
+        return true;
+    }
+
+    /**
+     * Adds a table to the tables of an already seated party, for rebuilding a restaurant from a journal or snapshot.
+     * @return Whether the party was seated and the table was empty.
+     */
+    boolean restoreJoinedTable(final Party party, final Table table) {
+        if (party.getSeatedTable() == null || !freeTables.remove(table)) return false;
+        if (party.joinedTables == null) {
+            party.joinedTables = new ArrayList<Table>(4);
+            party.joinedTables.add(party.getSeatedTable());
+        }
+        party.joinedTables.add(table);
+        occupy(party, table);
+        return true;
+    }
+
+    /**
+     * Moves the id counters past every id handed out before, so ids stay unique after a rebuild.
+     */
+    void restoreNextIds(final int nextTableId, final int nextPartyId) {
+        this.nextTableId = Math.max(this.nextTableId, nextTableId);
+        this.nextPartyId = Math.max(this.nextPartyId, nextPartyId);
+    }
+
+    int nextTableId() {
+        return nextTableId;
+    }
+
+    int nextPartyId() {
+        return nextPartyId;
+    }
+
+    CapacityIndex freeTableIndex() {
+        return freeTables;
+    }
+
+    boolean hasAdjacentTables() {
+        return adjacencyCount > 0;
+    }
+
+    /**
+     * @param size The size of the party.
+     * @return The fewest adjacent empty tables that together seat the party, largest first, or null if there are none.
+     */
+    List<Table> findJoinedTables(final int size) {
+        return adjacencyCount > 0 ? combiner.find(emptyTableList, size, maxJoinedTables) : null;
+    }
+
+    /**
+     * Applies a seating chosen by the seating policy.
+     * If the party is not waiting or some table is not an empty table of this restaurant,
+     * this method throws an instance of {@link IllegalStateException}.
+     */
+    private void seat(final Seating seating) {
+        Party party = seating.getParty();
+        List<Table> tables = seating.getTables();
+        if (!waitlist.contains(party)) throw new IllegalStateException("Seating policy chose a party that is not waiting");
+        for (int i = 0; i < tables.size(); ++i) {
+            if (!freeTables.contains(tables.get(i))) {
+                throw new IllegalStateException("Seating policy chose a table that is not empty");
+            }
+        }
+
+        waitlist.remove(party);
+        party.seatAtTable(seating.getTable());
+        if (tables.size() > 1) party.joinedTables = new ArrayList<Table>(tables);
+        for (int i = 0; i < tables.size(); ++i) {
+            freeTables.remove(tables.get(i));
+            occupy(party, tables.get(i));
+        }
+        policy.partySeated(seating);
+        for (int i = 0; i < listeners.size(); ++i) listeners.get(i).partySeated(seating);
+    }
+
+    /**
+     * Plays the queue forward to estimate waits, with one heap of expected free times per table capacity.
+     * The heaps are laid out in order of capacity once per estimate, so placing each party
+     * is a binary search and a scan of the larger capacities that allocates nothing.
+     * @param target The party to stop at, or null to estimate every party.
+     * @param waits The array to fill with every estimate, or null.
+     * @return The estimate for the target, or -1.
+     */
+    private long estimateWaits(final Party target, final long[] waits) {
+        long now = clock.getAsLong();
+        for (LongHeap heap : estimateHeaps.values()) heap.clear();
+        for (int i = 0; i < emptyTableList.size(); ++i) {
+            estimateHeap(emptyTableList.get(i).getTableCapacity()).add(0);
+        }
+        for (int i = 0; i < filledTableList.size(); ++i) {
+            Table table = filledTableList.get(i);
+            long remaining = getMeanDiningTime(table.getTableCapacity()) - (now - table.occupiedSince);
+            estimateHeap(table.getTableCapacity()).add(Math.max(0, remaining));
+        }
+
+        int count = 0;
+        if (estimateOrder.length < estimateHeaps.size()) {
+            estimateCapacities = new int[estimateHeaps.size()];
+            estimateOrder = new LongHeap[estimateHeaps.size()];
+            estimateMeans = new long[estimateHeaps.size()];
+        }
+        for (Map.Entry<Integer, LongHeap> entry : estimateHeaps.entrySet()) {
+            if (entry.getValue().isEmpty()) continue;
+            estimateCapacities[count] = entry.getKey();
+            estimateOrder[count] = entry.getValue();
+            estimateMeans[count] = getMeanDiningTime(entry.getKey());
+            ++count;
+        }
+
+        int position = 0;
+        for (Party party = waitlist.first(); party != null; party = waitlist.next(party), ++position) {
+            int first = Arrays.binarySearch(estimateCapacities, 0, count, party.getPartySize());
+            if (first < 0) first = -first - 1;
+            int best = -1;
+            for (int i = first; i < count; ++i) {
+                if (best < 0 || estimateOrder[i].peek() < estimateOrder[best].peek()) best = i;
+            }
+            long wait = -1;
+            if (best >= 0) {
+                wait = estimateOrder[best].poll();
+                estimateOrder[best].add(wait + estimateMeans[best]);
+            }
+            if (party == target) return wait;
+            if (waits != null) waits[position] = wait;
+        }
+        return -1;
+    }
+
+    private LongHeap estimateHeap(final int capacity) {
+        LongHeap heap = estimateHeaps.get(capacity);
+        if (heap == null) {
+            heap = new LongHeap();
+            estimateHeaps.put(capacity, heap);
+        }
+        return heap;
+    }
+
+    private void occupy(final Party party, final Table table) {
+        table.occupiedSince = clock.getAsLong();
+        table.occupy(party);
+        detach(emptyTableList, table);
+        attach(filledTableList, table);
+    }
+
+    private void release(final Table table) {
+        Party party = table.getParty();
+        turnover.record(table.getTableCapacity(), clock.getAsLong() - table.occupiedSince);
+        table.vacate();
+        detach(filledTableList, table);
+        attach(emptyTableList, table);
+        freeTables.add(table);
+        policy.tableEmptied(table, party);
+        for (int i = 0; i < listeners.size(); ++i) listeners.get(i).tableEmptied(table, party);
+    }
+
+    private static void attach(final List<Table> tables, final Table table) {
+        table.slot = tables.size();
+        tables.add(table);
+    }
+
+    private static void detach(final List<Table> tables, final Table table) {
+        Table last = tables.remove(tables.size() - 1);
+        if (last != table) {
+            tables.set(table.slot, last);
+            last.slot = table.slot;
+        }
+        table.slot = -1;
+    }
 }
@@ -0,0 +1,232 @@
+package restaurant;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One change to a restaurant, or a snapshot of its whole state, as published by a {@link RestaurantFeed}.
+ * <p>
+ * Events hold only ids and sizes, never the live {@link Table} and {@link Party} objects,
+ * so subscribers may read them on any thread while the restaurant keeps changing.
+ * Events are numbered in the order the changes were made; a snapshot carries the number of the last change it includes.
+ */
+public final class RestaurantEvent {
+    /**
+     * The kinds of event, named after the {@link RestaurantListener} callbacks they mirror.
+     */
+    public enum Type {
+        /** The whole state, sent first to every subscriber and again after changes were coalesced. */
+        SNAPSHOT,
+        TABLE_ADDED,
+        TABLE_REMOVED,
+        PARTY_BOOKED,
+        PARTY_REMOVED,
+        PARTY_SEATED,
+        TABLE_EMPTIED,
+        TABLES_JOINED,
+        TABLES_SEPARATED
+    }
+
+    private final Type type;
+    private final long sequence;
+    private final int tableId;
+    private final int capacity;
+    private final int otherTableId;
+    private final PartyState party;
+    private final List<TableState> tables;
+    private final List<PartyState> parties;
+
+    private RestaurantEvent(final Type type, final long sequence, final int tableId, final int capacity,
+                            final int otherTableId, final PartyState party,
+                            final List<TableState> tables, final List<PartyState> parties) {
+        this.type = type;
+        this.sequence = sequence;
+        this.tableId = tableId;
+        this.capacity = capacity;
+        this.otherTableId = otherTableId;
+        this.party = party;
+        this.tables = tables;
+        this.parties = parties;
+    }
+
+    static RestaurantEvent table(final Type type, final long sequence, final int tableId, final int capacity) {
+        return new RestaurantEvent(type, sequence, tableId, capacity, 0, null, null, null);
+    }
+
+    static RestaurantEvent tables(final Type type, final long sequence, final int tableId, final int otherTableId) {
+        return new RestaurantEvent(type, sequence, tableId, 0, otherTableId, null, null, null);
+    }
+
+    static RestaurantEvent party(final Type type, final long sequence, final PartyState party) {
+        return new RestaurantEvent(type, sequence, 0, 0, 0, party, null, null);
+    }
+
+    static RestaurantEvent emptied(final long sequence, final int tableId, final int capacity, final PartyState party) {
+        return new RestaurantEvent(Type.TABLE_EMPTIED, sequence, tableId, capacity, 0, party, null, null);
+    }
+
+    static RestaurantEvent snapshot(final long sequence, final List<TableState> tables, final List<PartyState> parties) {
+        return new RestaurantEvent(Type.SNAPSHOT, sequence, 0, 0, 0, null,
+                Collections.unmodifiableList(tables), Collections.unmodifiableList(parties));
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return The table added, removed or emptied, one of the tables joined or separated, or 0.
+     */
+    public int getTableId() {
+        return tableId;
+    }
+
+    /**
+     * @return The capacity of the table added, removed or emptied, or 0.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The other table joined or separated, or 0.
+     */
+    public int getOtherTableId() {
+        return otherTableId;
+    }
+
+    /**
+     * @return The party booked, removed, seated, or that left the emptied table, or null.
+     * A seated party lists the tables it was given.
+     */
+    public PartyState getParty() {
+        return party;
+    }
+
+    /**
+     * @return Every table of a snapshot, in the order they were added, or null for other events.
+     */
+    public List<TableState> getTables() {
+        return tables;
+    }
+
+    /**
+     * @return Every party of a snapshot, waiting parties first in queue order, then seated parties,
+     * or null for other events.
+     */
+    public List<PartyState> getParties() {
+        return parties;
+    }
+
+    @Override
+    public String toString() {
+        if (type == Type.SNAPSHOT) return "SNAPSHOT#" + sequence + " " + tables + " " + parties;
+        StringBuilder s = new StringBuilder().append(type).append('#').append(sequence);
+        if (tableId != 0) s.append(" table ").append(tableId);
+        if (otherTableId != 0) s.append(" and ").append(otherTableId);
+        if (party != null) s.append(' ').append(party);
+        return s.toString();
+    }
+
+    /**
+     * A table as it stood when an event was published.
+     */
+    public static final class TableState {
+        private final int id;
+        private final int capacity;
+        private final int partyId;
+
+        TableState(final int id, final int capacity, final int partyId) {
+            this.id = id;
+            this.capacity = capacity;
+            this.partyId = partyId;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * @return The party at the table, or 0 if it is empty.
+         */
+        public int getPartyId() {
+            return partyId;
+        }
+
+        @Override
+        public String toString() {
+            return id + ":" + capacity + ":" + (partyId == 0 ? "-" : Integer.toString(partyId));
+        }
+    }
+
+    /**
+     * A party as it stood when an event was published.
+     */
+    public static final class PartyState {
+        private final int id;
+        private final int size;
+        private final boolean vip;
+        private final int[] tableIds;
+
+        PartyState(final int id, final int size, final boolean vip, final int[] tableIds) {
+            this.id = id;
+            this.size = size;
+            this.vip = vip;
+            this.tableIds = tableIds;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public boolean isVIP() {
+            return vip;
+        }
+
+        /**
+         * @return Whether the party has been given a table.
+         */
+        public boolean isSeated() {
+            return tableIds.length > 0;
+        }
+
+        /**
+         * @return The number of tables the party is seated at, 0 while it waits.
+         */
+        public int getTableCount() {
+            return tableIds.length;
+        }
+
+        /**
+         * @param index The index of the table, its main table being 0.
+         * @return The id of the table.
+         */
+        public int getTableId(final int index) {
+            return tableIds[index];
+        }
+
+        int[] tableIds() {
+            return tableIds;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder s = new StringBuilder("party ").append(id).append(" of ").append(size);
+            if (vip) s.append(" VIP");
+            for (int i = 0; i < tableIds.length; ++i) s.append(i == 0 ? " at " : ",").append(tableIds[i]);
+            return s.toString();
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package restaurant;
+
+import restaurant.RestaurantEvent.PartyState;
+import restaurant.RestaurantEvent.TableState;
+import restaurant.RestaurantEvent.Type;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Publishes the changes to a {@link Restaurant} as a stream of {@link RestaurantEvent}s,
+ * so floor displays can follow its state instead of polling its getters.
+ * <p>
+ * Subscribers follow the Reactive Streams protocol of {@code java.util.concurrent.Flow}:
+ * {@link Subscriber} and {@link Subscription} have the same methods and rules as their {@code Flow} namesakes,
+ * so a {@code Flow.Subscriber} adapts to them with one line per method. They are declared here because
+ * the library still runs on Java 8, which has no {@code Flow}.
+ * <p>
+ * Every subscriber first receives a {@link Type#SNAPSHOT} of the whole state, then every change in order,
+ * and only as many events as it has requested. Each subscriber buffers up to a fixed number of changes;
+ * if it falls further behind, its buffered changes are coalesced into a fresh snapshot that it receives
+ * when it next has demand, so a slow display costs bounded memory and never slows the restaurant down.
+ * <p>
+ * The feed keeps its own copy of the state, updated in constant time as each change is made,
+ * so snapshots are taken without touching the restaurant and subscribers may come and go from any thread.
+ * Events are delivered on the given executor, one subscriber at a time in order.
+ * The feed must be created and closed on the thread that owns the restaurant.
+ */
+public final class RestaurantFeed implements RestaurantListener, Closeable {
+    private static final int[] NO_TABLES = new int[0];
+
+    /**
+     * Receives the events of a feed, like {@code java.util.concurrent.Flow.Subscriber}.
+     */
+    public interface Subscriber {
+        void onSubscribe(Subscription subscription);
+
+        void onNext(RestaurantEvent event);
+
+        void onError(Throwable throwable);
+
+        void onComplete();
+    }
+
+    /**
+     * Links a subscriber to a feed, like {@code java.util.concurrent.Flow.Subscription}.
+     */
+    public interface Subscription {
+        /**
+         * Asks for up to n more events. If n is less than or equal to zero,
+         * the subscriber is sent an {@link IllegalArgumentException} through {@link Subscriber#onError(Throwable)}.
+         */
+        void request(long n);
+
+        /**
+         * Stops the events, possibly after some already on their way.
+         */
+        void cancel();
+    }
+
+    private final Restaurant restaurant;
+    private final Executor executor;
+    private final int bufferSize;
+
+    // Guarded by lock, along with every subscription's state.
+    private final Object lock = new Object();
+    private final Map<Integer, TableState> tables = new TreeMap<Integer, TableState>();
+    private final Map<Integer, PartyState> vipWaiting = new LinkedHashMap<Integer, PartyState>();
+    private final Map<Integer, PartyState> regularWaiting = new LinkedHashMap<Integer, PartyState>();
+    private final Map<Integer, PartyState> seated = new LinkedHashMap<Integer, PartyState>();
+    private final List<FeedSubscription> subscriptions = new ArrayList<FeedSubscription>();
+    private long sequence = 0;
+    private boolean closed = false;
+
+    /**
+     * Starts publishing the changes to a restaurant, delivering events on the common fork-join pool
+     * and buffering up to 256 changes per subscriber.
+     */
+    public RestaurantFeed(final Restaurant restaurant) {
+        this(restaurant, ForkJoinPool.commonPool(), 256);
+    }
+
+    /**
+     * Starts publishing the changes to a restaurant.
+     * If the buffer size is less than or equal to zero,
+     * this constructor throws an instance of {@link IllegalArgumentException}.
+     * @param restaurant The restaurant to follow.
+     * @param executor The executor that delivers events to subscribers.
+     * @param bufferSize The number of changes a subscriber may fall behind before they are coalesced into a snapshot.
+     */
+    public RestaurantFeed(final Restaurant restaurant, final Executor executor, final int bufferSize) {
+        if (bufferSize <= 0) throw new IllegalArgumentException("buffer size must be positive: " + bufferSize);
+        this.restaurant = restaurant;
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+
+        for (Table table : restaurant.getEmptyTables()) putTable(table, 0);
+        for (Table table : restaurant.getFilledTables()) putTable(table, table.getParty().getId());
+        restaurant.forEachWaiting(party -> waiting(party).put(party.getId(), state(party, NO_TABLES)));
+        for (Table table : restaurant.getFilledTables()) {
+            Party party = table.getParty();
+            if (party.getSeatedTable() == table) seated.put(party.getId(), state(party, tableIds(party.getSeatedTables())));
+        }
+        restaurant.addListener(this);
+    }
+
+    /**
+     * Subscribes to the feed. The subscriber is sent a snapshot as soon as it requests an event.
+     * If the feed is closed, the subscriber is sent the final snapshot on request, then completed.
+     */
+    public void subscribe(final Subscriber subscriber) {
+        if (subscriber == null) throw new NullPointerException("subscriber");
+        synchronized (lock) {
+            FeedSubscription subscription = new FeedSubscription(subscriber);
+            if (closed) {
+                subscription.completing = true;
+            } else {
+                subscriptions.add(subscription);
+            }
+            subscription.schedule();
+        }
+    }
+
+    /**
+     * @return The number of subscribers that have not cancelled or been completed.
+     */
+    public int getSubscriberCount() {
+        synchronized (lock) {
+            return subscriptions.size();
+        }
+    }
+
+    /**
+     * Stops following the restaurant and completes every subscriber once it has received the changes so far.
+     */
+    @Override
+    public void close() {
+        restaurant.removeListener(this);
+        synchronized (lock) {
+            closed = true;
+            List<FeedSubscription> open = new ArrayList<FeedSubscription>(subscriptions);
+            subscriptions.clear();
+            for (FeedSubscription subscription : open) {
+                subscription.completing = true;
+                subscription.schedule();
+            }
+        }
+    }
+
+    @Override
+    public void tableAdded(final Table table) {
+        synchronized (lock) {
+            putTable(table, 0);
+            publish(RestaurantEvent.table(Type.TABLE_ADDED, ++sequence, table.getId(), table.getTableCapacity()));
+        }
+    }
+
+    @Override
+    public void tableRemoved(final Table table) {
+        synchronized (lock) {
+            tables.remove(table.getId());
+            publish(RestaurantEvent.table(Type.TABLE_REMOVED, ++sequence, table.getId(), table.getTableCapacity()));
+        }
+    }
+
+    @Override
+    public void partyBooked(final Party party) {
+        synchronized (lock) {
+            PartyState state = state(party, NO_TABLES);
+            waiting(party).put(party.getId(), state);
+            publish(RestaurantEvent.party(Type.PARTY_BOOKED, ++sequence, state));
+        }
+    }
+
+    @Override
+    public void partyRemoved(final Party party) {
+        synchronized (lock) {
+            PartyState state = waiting(party).remove(party.getId());
+            PartyState seatedState = seated.remove(party.getId());
+            if (seatedState != null) {
+                state = seatedState;
+                for (int tableId : seatedState.tableIds()) clearTable(tableId, party.getId());
+            }
+            if (state == null) state = state(party, NO_TABLES);
+            publish(RestaurantEvent.party(Type.PARTY_REMOVED, ++sequence, state));
+        }
+    }
+
+    @Override
+    public void partySeated(final Seating seating) {
+        Party party = seating.getParty();
+        synchronized (lock) {
+            waiting(party).remove(party.getId());
+            PartyState state = state(party, tableIds(seating.getTables()));
+            seated.put(party.getId(), state);
+            for (Table table : seating.getTables()) putTable(table, party.getId());
+            publish(RestaurantEvent.party(Type.PARTY_SEATED, ++sequence, state));
+        }
+    }
+
+    @Override
+    public void tableEmptied(final Table table, final Party party) {
+        synchronized (lock) {
+            putTable(table, 0);
+            PartyState state = seated.get(party.getId());
+            if (state == null) {
+                state = state(party, NO_TABLES);
+            } else if (!seatedAtAny(state)) {
+                seated.remove(party.getId());
+            }
+            publish(RestaurantEvent.emptied(++sequence, table.getId(), table.getTableCapacity(), state));
+        }
+    }
+
+    @Override
+    public void tablesJoined(final Table table, final Table other) {
+        synchronized (lock) {
+            publish(RestaurantEvent.tables(Type.TABLES_JOINED, ++sequence, table.getId(), other.getId()));
+        }
+    }
+
+    @Override
+    public void tablesSeparated(final Table table, final Table other) {
+        synchronized (lock) {
+            publish(RestaurantEvent.tables(Type.TABLES_SEPARATED, ++sequence, table.getId(), other.getId()));
+        }
+    }
+
+    private void publish(final RestaurantEvent event) {
+        // Backwards, since a subscription delivering on this thread may end and remove itself.
+        for (int i = subscriptions.size() - 1; i >= 0; --i) subscriptions.get(i).offer(event);
+    }
+
+    private RestaurantEvent snapshot() {
+        List<PartyState> parties = new ArrayList<PartyState>(vipWaiting.size() + regularWaiting.size() + seated.size());
+        parties.addAll(vipWaiting.values());
+        parties.addAll(regularWaiting.values());
+        parties.addAll(seated.values());
+        return RestaurantEvent.snapshot(sequence, new ArrayList<TableState>(tables.values()), parties);
+    }
+
+    private Map<Integer, PartyState> waiting(final Party party) {
+        return party.isVIP() ? vipWaiting : regularWaiting;
+    }
+
+    private void putTable(final Table table, final int partyId) {
+        tables.put(table.getId(), new TableState(table.getId(), table.getTableCapacity(), partyId));
+    }
+
+    private void clearTable(final int tableId, final int partyId) {
+        TableState table = tables.get(tableId);
+        if (table != null && table.getPartyId() == partyId) {
+            tables.put(tableId, new TableState(tableId, table.getCapacity(), 0));
+        }
+    }
+
+    private boolean seatedAtAny(final PartyState party) {
+        for (int tableId : party.tableIds()) {
+            TableState table = tables.get(tableId);
+            if (table != null && table.getPartyId() == party.getId()) return true;
+        }
+        return false;
+    }
+
+    private static PartyState state(final Party party, final int[] tableIds) {
+        return new PartyState(party.getId(), party.getPartySize(), party.isVIP(), tableIds);
+    }
+
+    private static int[] tableIds(final List<Table> tables) {
+        int[] ids = new int[tables.size()];
+        for (int i = 0; i < ids.length; ++i) ids[i] = tables.get(i).getId();
+        return ids;
+    }
+
+    /**
+     * One subscriber's demand and backlog. Deliveries run as a task on the executor,
+     * scheduled whenever there is something to deliver and no task is already running.
+     */
+    private final class FeedSubscription implements Subscription, Runnable {
+        private final Subscriber subscriber;
+        private final ArrayDeque<RestaurantEvent> buffer = new ArrayDeque<RestaurantEvent>();
+        private long demand = 0;
+        private boolean resync = true;
+        private boolean scheduled = false;
+        private boolean started = false;
+        private boolean cancelled = false;
+        private boolean completing = false;
+        private Throwable error = null;
+
+        private FeedSubscription(final Subscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            synchronized (lock) {
+                if (cancelled) return;
+                if (n <= 0) {
+                    error = new IllegalArgumentException("non-positive request: " + n);
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+                schedule();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (lock) {
+                cancelled = true;
+                buffer.clear();
+                subscriptions.remove(this);
+            }
+        }
+
+        /**
+         * Queues a change, or gives up on the backlog when it is full and asks for a snapshot instead.
+         */
+        private void offer(final RestaurantEvent event) {
+            // A pending snapshot will include the change.
+            if (resync) return;
+            if (buffer.size() == bufferSize) {
+                buffer.clear();
+                resync = true;
+            } else {
+                buffer.add(event);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled || cancelled) return;
+            scheduled = true;
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled = false;
+                cancelled = true;
+                subscriptions.remove(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!started) {
+                started = true;
+                subscriber.onSubscribe(this);
+            }
+            while (true) {
+                RestaurantEvent next = null;
+                Throwable failure = null;
+                synchronized (lock) {
+                    if (cancelled) {
+                        scheduled = false;
+                        return;
+                    }
+                    if (error != null) {
+                        failure = error;
+                    } else if (demand > 0 && resync) {
+                        next = snapshot();
+                        resync = false;
+                    } else if (demand > 0 && !buffer.isEmpty()) {
+                        next = buffer.poll();
+                    } else if (!completing || resync || !buffer.isEmpty()) {
+                        scheduled = false;
+                        return;
+                    }
+                    if (next == null) {
+                        // Failing or completing ends the subscription.
+                        cancelled = true;
+                        subscriptions.remove(this);
+                    } else if (demand != Long.MAX_VALUE) {
+                        --demand;
+                    }
+                }
+
+                if (failure != null) {
+                    subscriber.onError(failure);
+                    return;
+                }
+                if (next == null) {
+                    subscriber.onComplete();
+                    return;
+                }
+                try {
+                    subscriber.onNext(next);
+                } catch (RuntimeException e) {
+                    cancel();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package restaurant;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many restaurants in one process, sharded over single-writer event loops.
+ * <p>
+ * Every restaurant belongs to one shard, chosen by its id, and is only ever touched by that shard's thread,
+ * so restaurants need no locks and locations never contend with each other.
+ * Commands are submitted as tasks and complete a future with their result.
+ * <p>
+ * After every task a shard publishes a small immutable summary of its restaurants through a volatile field,
+ * kept up to date incrementally by listeners, so group-wide queries such as {@link #totalFreeSeats()}
+ * read one field per shard and never wait for or stop a shard.
+ * Summaries trail the shards by at most the task each one is running.
+ */
+public final class RestaurantGroup implements Closeable {
+    /**
+     * A command run against one restaurant on the thread of its shard.
+     * Tables and parties it returns should only be passed back into later tasks on the same restaurant.
+     */
+    public interface RestaurantTask<T> {
+        T apply(Restaurant restaurant) throws Exception;
+    }
+
+    private final Shard[] shards;
+
+    /**
+     * Creates a group with one shard per available processor.
+     */
+    public RestaurantGroup() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param shardCount The number of shards, each with its own thread; must be positive.
+     */
+    public RestaurantGroup(final int shardCount) {
+        if (shardCount <= 0) throw new IllegalArgumentException("shard count must be positive: " + shardCount);
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; ++i) shards[i] = new Shard(i);
+    }
+
+    /**
+     * Creates an empty restaurant in the group.
+     * @param id The id to route commands for the restaurant by.
+     * @return A future that fails with an {@link IllegalArgumentException} if the id is taken.
+     */
+    public CompletableFuture<Void> addRestaurant(final int id) {
+        final Shard shard = shardOf(id);
+        return shard.run(() -> {
+            if (shard.restaurants.containsKey(id)) throw new IllegalArgumentException("Restaurant " + id + " already exists");
+            final Restaurant restaurant = new Restaurant();
+            restaurant.addListener(shard.new Tracker());
+            shard.restaurants.put(id, restaurant);
+            return null;
+        });
+    }
+
+    /**
+     * Removes a restaurant and everything in it from the group.
+     * @param id The id of the restaurant.
+     * @return A future that completes with whether the restaurant existed.
+     */
+    public CompletableFuture<Boolean> removeRestaurant(final int id) {
+        final Shard shard = shardOf(id);
+        return shard.run(() -> {
+            final Restaurant restaurant = shard.restaurants.remove(id);
+            if (restaurant == null) return false;
+            for (Table table : restaurant.getEmptyTables()) shard.freeSeats -= table.getTableCapacity();
+            for (Party party : restaurant.getSharedUnseatedParties()) shard.waiting.remove(party);
+            return true;
+        });
+    }
+
+    /**
+     * Runs a command against a restaurant on the thread of its shard.
+     * @param id The id of the restaurant.
+     * @param task The command.
+     * @return A future that completes with the result of the command, or with the exception it threw.
+     * It fails with an {@link IllegalArgumentException} if there is no such restaurant.
+     */
+    public <T> CompletableFuture<T> submit(final int id, final RestaurantTask<T> task) {
+        final Shard shard = shardOf(id);
+        return shard.run(() -> {
+            final Restaurant restaurant = shard.restaurants.get(id);
+            if (restaurant == null) throw new IllegalArgumentException("No restaurant " + id);
+            return task.apply(restaurant);
+        });
+    }
+
+    /**
+     * @return The number of seats at empty tables over every restaurant of the group.
+     */
+    public long totalFreeSeats() {
+        long seats = 0;
+        for (Shard shard : shards) seats += shard.summary.freeSeats;
+        return seats;
+    }
+
+    /**
+     * @return The number of parties waiting for a table over every restaurant of the group.
+     */
+    public long totalWaitingParties() {
+        long waiting = 0;
+        for (Shard shard : shards) waiting += shard.summary.waitingParties;
+        return waiting;
+    }
+
+    /**
+     * @return How long the party that has waited longest anywhere in the group has been waiting, in nanoseconds,
+     * or 0 if no party is waiting.
+     */
+    public long longestWaitNanos() {
+        final long now = System.nanoTime();
+        long longest = 0;
+        for (Shard shard : shards) {
+            final Summary summary = shard.summary;
+            if (summary.waitingParties > 0) longest = Math.max(longest, now - summary.oldestBooking);
+        }
+        return longest;
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Stops accepting commands, lets every shard finish the commands already submitted and waits for them.
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards) shard.executor.shutdown();
+        boolean interrupted = false;
+        for (Shard shard : shards) {
+            try {
+                while (!shard.executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    // Keep waiting; commands are expected to be short.
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private Shard shardOf(final int id) {
+        return shards[Math.floorMod(id, shards.length)];
+    }
+
+    /**
+     * The totals of one shard, replaced as a whole so readers always see a consistent set.
+     */
+    private static final class Summary {
+        private static final Summary EMPTY = new Summary(0, 0, 0);
+
+        private final long freeSeats;
+        private final int waitingParties;
+        private final long oldestBooking;
+
+        private Summary(long freeSeats, int waitingParties, long oldestBooking) {
+            this.freeSeats = freeSeats;
+            this.waitingParties = waitingParties;
+            this.oldestBooking = oldestBooking;
+        }
+    }
+
+    /**
+     * One event loop and the restaurants it owns. Everything but the summary is confined to its thread.
+     */
+    private static final class Shard {
+        private final ExecutorService executor;
+        private final Map<Integer, Restaurant> restaurants = new HashMap<Integer, Restaurant>();
+        // Waiting parties of every restaurant of the shard, in booking order, with their booking time.
+        private final LinkedHashMap<Party, Long> waiting = new LinkedHashMap<Party, Long>();
+        private long freeSeats = 0;
+        private volatile Summary summary = Summary.EMPTY;
+
+        private Shard(final int index) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "restaurant-shard-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private <T> CompletableFuture<T> run(final Callable<T> task) {
+            final CompletableFuture<T> future = new CompletableFuture<T>();
+            try {
+                executor.execute(() -> {
+                    T result;
+                    try {
+                        result = task.call();
+                    } catch (Throwable e) {
+                        publish();
+                        future.completeExceptionally(e);
+                        return;
+                    }
+                    publish();
+                    future.complete(result);
+                });
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+
+        private void publish() {
+            final Summary current = summary;
+            final long oldest = waiting.isEmpty() ? 0 : waiting.values().iterator().next();
+            if (current.freeSeats != freeSeats || current.waitingParties != waiting.size()
+                    || current.oldestBooking != oldest) {
+                summary = new Summary(freeSeats, waiting.size(), oldest);
+            }
+        }
+
+        /**
+         * Keeps the totals of the shard in step with one of its restaurants.
+         */
+        private final class Tracker implements RestaurantListener {
+            @Override
+            public void tableAdded(final Table table) {
+                freeSeats += table.getTableCapacity();
+            }
+
+            @Override
+            public void tableRemoved(final Table table) {
+                freeSeats -= table.getTableCapacity();
+            }
+
+            @Override
+            public void partyBooked(final Party party) {
+                waiting.put(party, System.nanoTime());
+            }
+
+            @Override
+            public void partyRemoved(final Party party) {
+                waiting.remove(party);
+            }
+
+            @Override
+            public void partySeated(final Seating seating) {
+                waiting.remove(seating.getParty());
+                for (Table table : seating.getTables()) freeSeats -= table.getTableCapacity();
+            }
+
+            @Override
+            public void tableEmptied(final Table table, final Party party) {
+                freeSeats += table.getTableCapacity();
+            }
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package restaurant;
+
+import restaurant.exceptions.EmptyTableException;
+import restaurant.exceptions.MissingTableException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An append-only binary journal of every change to a {@link Restaurant}, used to rebuild it after a restart.
+ * <p>
+ * The journal lives in a directory holding numbered generations.
+ * Generation n consists of an optional {@link RestaurantSnapshot} image {@code snapshot-n.bin},
+ * followed by the log {@code journal-n.log} of every change made since.
+ * A checkpoint starts a new generation from a fresh snapshot and deletes the older ones,
+ * so replay time is bounded by the size of the restaurant plus the changes since the last checkpoint.
+ * <p>
+ * Changes are buffered and written with group commit:
+ * the buffer is written and forced to disk once it holds the configured number of records,
+ * or whenever {@link #commit()} is called.
+ * A log record cut short by a crash is ignored on replay.
+ * Group commits and automatic checkpoints run only once the restaurant reports a change complete,
+ * never while it is partway through one, so the records of one change, such as the release of several joined tables,
+ * are committed together and a checkpoint always captures a consistent restaurant.
+ * The journal must be used from the thread that changes the restaurant.
+ * <p>
+ * A write that fails while the restaurant is being changed cannot be reported to the caller of the change,
+ * so the journal stops recording and raises the failure from the next {@link #commit()},
+ * {@link #checkpoint()} or {@link #close()}. The restaurant itself stays usable,
+ * but changes made after the failure are lost from the journal.
+ */
+public final class RestaurantJournal implements RestaurantListener, Closeable {
+    private static final int MAGIC = 0x524A4E4C;
+    private static final int HEADER_SIZE = 4;
+
+    private static final byte ADD_TABLE = 1;
+    private static final byte REMOVE_TABLE = 2;
+    private static final byte BOOK_PARTY = 3;
+    private static final byte REMOVE_PARTY = 4;
+    private static final byte SEAT_PARTY = 5;
+    private static final byte EMPTY_TABLE = 6;
+    private static final byte SEAT_JOINED_TABLE = 7;
+    private static final byte JOIN_TABLES = 8;
+    private static final byte SEPARATE_TABLES = 9;
+
+    private static final int RECORD_SIZE = 10;
+
+    private final Path directory;
+    private final Restaurant restaurant;
+    private final int groupCommitSize;
+    private final int checkpointInterval;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    private long generation;
+    private FileChannel log;
+    private int pendingRecords = 0;
+    private int recordsSinceCheckpoint = 0;
+    private IOException failure = null;
+
+    private RestaurantJournal(Path directory, Restaurant restaurant, long generation, FileChannel log,
+                              int groupCommitSize, int checkpointInterval) {
+        this.directory = directory;
+        this.restaurant = restaurant;
+        this.generation = generation;
+        this.log = log;
+        this.groupCommitSize = groupCommitSize;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Opens the journal in the given directory with a group commit size of 64 records and no automatic checkpoints.
+     * @see #open(Path, int, int)
+     */
+    public static RestaurantJournal open(final Path directory) throws IOException {
+        return open(directory, 64, 0);
+    }
+
+    /**
+     * Opens the journal in the given directory, creating it if needed, and rebuilds the restaurant it records.
+     * The rebuilt restaurant has the same tables, occupancy, waitlist order and ids as the journaled one,
+     * and every later change to it is journaled.
+     * @param directory The directory holding the journal.
+     * @param groupCommitSize The number of records buffered before they are written and forced to disk.
+     * @param checkpointInterval The number of records after which a checkpoint is taken automatically, or 0 for never.
+     * @return The open journal.
+     * @throws IOException If the journal cannot be read or written.
+     */
+    public static RestaurantJournal open(final Path directory, final int groupCommitSize, final int checkpointInterval)
+            throws IOException {
+        if (groupCommitSize <= 0) throw new IllegalArgumentException("groupCommitSize must be positive");
+        if (checkpointInterval < 0) throw new IllegalArgumentException("checkpointInterval must not be negative");
+        Files.createDirectories(directory);
+
+        long generation = latestGeneration(directory);
+        Restaurant restaurant = readSnapshot(snapshotPath(directory, generation));
+        Replay replay = new Replay(restaurant);
+        long validLength = replay.apply(logPath(directory, generation));
+
+        FileChannel log = FileChannel.open(logPath(directory, generation),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (log.size() < HEADER_SIZE) {
+            log.truncate(0);
+            writeHeader(log);
+        } else {
+            log.truncate(validLength);
+        }
+        log.position(log.size());
+
+        RestaurantJournal journal = new RestaurantJournal(directory, restaurant, generation, log,
+                groupCommitSize, checkpointInterval);
+        restaurant.addListener(journal);
+        return journal;
+    }
+
+    /**
+     * @return The restaurant this journal records.
+     */
+    public Restaurant getRestaurant() {
+        return restaurant;
+    }
+
+    /**
+     * Writes every buffered record and forces the log to disk.
+     * @throws IOException If the log cannot be written, now or while a change was being recorded.
+     */
+    public void commit() throws IOException {
+        if (failure != null) throw failure;
+        flush();
+    }
+
+    private void flush() throws IOException {
+        if (buffer.position() > 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) log.write(buffer);
+            buffer.clear();
+        }
+        if (pendingRecords > 0) {
+            log.force(false);
+            pendingRecords = 0;
+        }
+    }
+
+    /**
+     * Starts a new generation from a snapshot of the current restaurant and deletes the older generations.
+     * @throws IOException If the snapshot or the new log cannot be written.
+     */
+    public void checkpoint() throws IOException {
+        commit();
+        long next = generation + 1;
+
+        Path temporary = directory.resolve("snapshot-" + next + ".tmp");
+        try (FileChannel snapshot = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer image = RestaurantSnapshot.of(restaurant).buffer();
+            while (image.hasRemaining()) snapshot.write(image);
+            snapshot.force(true);
+        }
+        Files.move(temporary, snapshotPath(directory, next), StandardCopyOption.ATOMIC_MOVE);
+
+        FileChannel nextLog = FileChannel.open(logPath(directory, next),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        writeHeader(nextLog);
+        log.close();
+        log = nextLog;
+
+        Files.deleteIfExists(logPath(directory, generation));
+        Files.deleteIfExists(snapshotPath(directory, generation));
+        generation = next;
+        recordsSinceCheckpoint = 0;
+    }
+
+    /**
+     * Commits every buffered record, closes the log and stops journaling the restaurant.
+     * @throws IOException If the log cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        restaurant.removeListener(this);
+        try {
+            commit();
+        } finally {
+            log.close();
+        }
+    }
+
+    @Override
+    public void tableAdded(final Table table) {
+        if (!reserve(1)) return;
+        buffer.put(ADD_TABLE).putInt(table.getId()).putInt(table.getTableCapacity());
+        recorded(1);
+    }
+
+    @Override
+    public void tableRemoved(final Table table) {
+        if (!reserve(1)) return;
+        buffer.put(REMOVE_TABLE).putInt(table.getId());
+        recorded(1);
+    }
+
+    @Override
+    public void partyBooked(final Party party) {
+        if (!reserve(1)) return;
+        buffer.put(BOOK_PARTY).putInt(party.getId()).putInt(party.getPartySize()).put((byte) (party.isVIP() ? 1 : 0));
+        recorded(1);
+    }
+
+    @Override
+    public void partyRemoved(final Party party) {
+        if (!reserve(1)) return;
+        buffer.put(REMOVE_PARTY).putInt(party.getId());
+        recorded(1);
+    }
+
+    @Override
+    public void partySeated(final Seating seating) {
+        List<Table> tables = seating.getTables();
+        if (!reserve(tables.size())) return;
+        buffer.put(SEAT_PARTY).putInt(seating.getParty().getId()).putInt(tables.get(0).getId());
+        for (int i = 1; i < tables.size(); ++i) {
+            buffer.put(SEAT_JOINED_TABLE).putInt(seating.getParty().getId()).putInt(tables.get(i).getId());
+        }
+        recorded(tables.size());
+    }
+
+    @Override
+    public void tableEmptied(final Table table, final Party party) {
+        if (!reserve(1)) return;
+        buffer.put(EMPTY_TABLE).putInt(table.getId());
+        recorded(1);
+    }
+
+    @Override
+    public void tablesJoined(final Table table, final Table other) {
+        if (!reserve(1)) return;
+        buffer.put(JOIN_TABLES).putInt(table.getId()).putInt(other.getId());
+        recorded(1);
+    }
+
+    @Override
+    public void tablesSeparated(final Table table, final Table other) {
+        if (!reserve(1)) return;
+        buffer.put(SEPARATE_TABLES).putInt(table.getId()).putInt(other.getId());
+        recorded(1);
+    }
+
+    @Override
+    public void changeCompleted() {
+        if (failure != null) return;
+        try {
+            if (checkpointInterval > 0 && recordsSinceCheckpoint >= checkpointInterval) checkpoint();
+            else if (pendingRecords >= groupCommitSize) flush();
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Makes room in the buffer for a group of records, writing out the buffered ones if needed.
+     * @return Whether the records should be written, which they should not once the journal has failed.
+     */
+    private boolean reserve(final int records) {
+        if (failure != null) return false;
+        if (buffer.remaining() >= records * RECORD_SIZE) return true;
+        try {
+            flush();
+            return true;
+        } catch (IOException e) {
+            failure = e;
+            return false;
+        }
+    }
+
+    /**
+     * Counts a group of buffered records. They are committed, or checkpointed, once the change they belong to is complete.
+     */
+    private void recorded(final int records) {
+        pendingRecords += records;
+        recordsSinceCheckpoint += records;
+    }
+
+    /**
+     * Rebuilds the restaurant captured by a snapshot file, or returns a new restaurant if there is none.
+     */
+    private static Restaurant readSnapshot(final Path file) throws IOException {
+        if (!Files.exists(file)) return new Restaurant();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return RestaurantSnapshot.wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())).restore();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unreadable snapshot: " + file, e);
+        }
+    }
+
+    private static void writeHeader(final FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC);
+        header.flip();
+        while (header.hasRemaining()) channel.write(header);
+    }
+
+    private static long latestGeneration(final Path directory) throws IOException {
+        long latest = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "{snapshot-*.bin,journal-*.log}")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String number = name.substring(name.indexOf('-') + 1, name.lastIndexOf('.'));
+                try {
+                    latest = Math.max(latest, Long.parseLong(number));
+                } catch (NumberFormatException e) {
+                    // Not one of ours.
+                }
+            }
+        }
+        return latest;
+    }
+
+    private static Path snapshotPath(final Path directory, final long generation) {
+        return directory.resolve("snapshot-" + generation + ".bin");
+    }
+
+    private static Path logPath(final Path directory, final long generation) {
+        return directory.resolve("journal-" + generation + ".log");
+    }
+
+    /**
+     * Applies journal files to a restaurant, resolving the ids in the records to the tables and parties they name.
+     */
+    private static final class Replay {
+        private final Restaurant restaurant;
+        private final Map<Integer, Table> tables = new HashMap<Integer, Table>();
+        private final Map<Integer, Party> parties = new HashMap<Integer, Party>();
+
+        private Replay(Restaurant restaurant) {
+            this.restaurant = restaurant;
+            for (Table table : restaurant.getEmptyTables()) {
+                tables.put(table.getId(), table);
+            }
+            for (Table table : restaurant.getFilledTables()) {
+                tables.put(table.getId(), table);
+                parties.put(table.getParty().getId(), table.getParty());
+            }
+            for (Party party : restaurant.getSharedUnseatedParties()) {
+                parties.put(party.getId(), party);
+            }
+        }
+
+        /**
+         * Applies every complete record in the file, if it exists.
+         * @return The length of the file up to the end of the last complete record.
+         */
+        private long apply(final Path file) throws IOException {
+            if (!Files.exists(file)) return 0;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() < HEADER_SIZE) return 0;
+                MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (in.getInt() != MAGIC) throw new IOException("Not a restaurant journal: " + file);
+
+                int end = in.position();
+                while (in.hasRemaining() && applyRecord(in)) end = in.position();
+                return end;
+            }
+        }
+
+        /**
+         * @return Whether a complete record was applied.
+         */
+        private boolean applyRecord(final ByteBuffer in) throws IOException {
+            byte type = in.get();
+            switch (type) {
+                case ADD_TABLE:
+                    if (in.remaining() < 8) return false;
+                    int tableId = in.getInt();
+                    tables.put(tableId, restaurant.restoreTable(tableId, in.getInt()));
+                    return true;
+                case REMOVE_TABLE:
+                    if (in.remaining() < 4) return false;
+                    restaurant.tryRemoveTable(tables.remove(in.getInt()));
+                    return true;
+                case BOOK_PARTY:
+                    if (in.remaining() < 9) return false;
+                    int partyId = in.getInt();
+                    int size = in.getInt();
+                    parties.put(partyId, restaurant.restoreParty(partyId, size, in.get() != 0));
+                    return true;
+                case REMOVE_PARTY:
+                    if (in.remaining() < 4) return false;
+                    restaurant.tryRemoveParty(parties.get(in.getInt()));
+                    return true;
+                case SEAT_PARTY:
+                    if (in.remaining() < 8) return false;
+                    Party party = parties.get(in.getInt());
+                    Table table = tables.get(in.getInt());
+                    if (party == null || table == null || !restaurant.restoreSeating(party, table)) {
+                        throw new IOException("Journal seats a party that cannot be seated");
+                    }
+                    return true;
+                case SEAT_JOINED_TABLE:
+                    if (in.remaining() < 8) return false;
+                    Party joinedParty = parties.get(in.getInt());
+                    Table joinedTable = tables.get(in.getInt());
+                    if (joinedParty == null || joinedTable == null
+                            || !restaurant.restoreJoinedTable(joinedParty, joinedTable)) {
+                        throw new IOException("Journal joins a table that cannot be joined");
+                    }
+                    return true;
+                case JOIN_TABLES:
+                case SEPARATE_TABLES:
+                    if (in.remaining() < 8) return false;
+                    Table first = tables.get(in.getInt());
+                    Table second = tables.get(in.getInt());
+                    try {
+                        if (type == JOIN_TABLES) restaurant.joinTables(first, second);
+                        else restaurant.separateTables(first, second);
+                    } catch (MissingTableException e) {
+                        throw new IOException("Journal links a missing table", e);
+                    }
+                    return true;
+                case EMPTY_TABLE:
+                    if (in.remaining() < 4) return false;
+                    Table emptied = tables.get(in.getInt());
+                    if (emptied != null && emptied.isOccupied()) {
+                        try {
+                            restaurant.emptyTable(emptied);
+                        } catch (EmptyTableException e) {
+                            throw new IOException(e);
+                        }
+                    }
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package restaurant;
+
+/**
+ * Receives a callback after each change to a {@link Restaurant}.
+ * Callbacks run synchronously on the thread that made the change, so they should be quick and must not modify the restaurant.
+ * Every method does nothing by default, so implementations only override the changes they care about.
+ */
+public interface RestaurantListener {
+    /**
+     * @param table The table that was added.
+     */
+    default void tableAdded(Table table) {
+    }
+
+    /**
+     * @param table The table that was removed.
+     */
+    default void tableRemoved(Table table) {
+    }
+
+    /**
+     * @param party The party that joined the waitlist.
+     */
+    default void partyBooked(Party party) {
+    }
+
+    /**
+     * @param party The party that was removed from the restaurant.
+     */
+    default void partyRemoved(Party party) {
+    }
+
+    /**
+     * @param seating The party that was seated and the table it was given.
+     */
+    default void partySeated(Seating seating) {
+    }
+
+    /**
+     * @param table The table that was emptied.
+     * @param party The party that left the table.
+     */
+    default void tableEmptied(Table table, Party party) {
+    }
+
+    /**
+     * @param table One of the tables that were marked adjacent.
+     * @param other The other table.
+     */
+    default void tablesJoined(Table table, Table other) {
+    }
+
+    /**
+     * @param table One of the tables that are no longer adjacent.
+     * @param other The other table.
+     */
+    default void tablesSeparated(Table table, Table other) {
+    }
+
+    /**
+     * Called once a change to the restaurant, and any seating it set off, is complete,
+     * after the callbacks for each of its steps. The restaurant is consistent again,
+     * so this is the place for work that reads the whole restaurant, such as taking a snapshot.
+     */
+    default void changeCompleted() {
+    }
+}
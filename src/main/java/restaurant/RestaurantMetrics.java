@@ -0,0 +1,345 @@
+package restaurant;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Low-overhead instrumentation of a {@link Restaurant}, installed with {@link Restaurant#setMetrics(RestaurantMetrics)}.
+ * <p>
+ * It measures the call latency of {@code seatParty}, {@code bookParty} and {@code emptyTable},
+ * the time each party waits from booking to seating, the depth of the queue, the occupancy of the tables
+ * of each capacity, and how often seating found no table for any waiting party.
+ * Everything is kept in striped adders and lock-free histograms, so recording never blocks and
+ * {@link #snapshot()} or JMX can read the metrics from any thread while the restaurant is busy.
+ * One instance may be shared by several restaurants to aggregate them.
+ */
+public final class RestaurantMetrics implements RestaurantListener, RestaurantMetricsMXBean {
+    private final LatencyHistogram seatPartyLatency = new LatencyHistogram();
+    private final LatencyHistogram bookPartyLatency = new LatencyHistogram();
+    private final LatencyHistogram emptyTableLatency = new LatencyHistogram();
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LongAdder queueDepth = new LongAdder();
+    private final LongAdder noTablesAvailable = new LongAdder();
+    private final ConcurrentHashMap<Integer, Occupancy> occupancy = new ConcurrentHashMap<Integer, Occupancy>();
+
+    /**
+     * Registers the metrics with the platform MBean server.
+     * @param name The value of the {@code name} key of the object name, for example the name of the restaurant.
+     * @return The object name the metrics were registered under.
+     * @throws JMException If the name is invalid or already taken.
+     */
+    public ObjectName register(final String name) throws JMException {
+        final ObjectName objectName = new ObjectName("restaurant:type=RestaurantMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * @return The current values of every metric.
+     */
+    public Snapshot snapshot() {
+        final SortedMap<Integer, long[]> tables = new TreeMap<Integer, long[]>();
+        for (Map.Entry<Integer, Occupancy> entry : occupancy.entrySet()) {
+            final long total = entry.getValue().tables.sum();
+            if (total > 0) tables.put(entry.getKey(), new long[] { total, entry.getValue().occupied.sum() });
+        }
+        return new Snapshot(System.nanoTime(), seatPartyLatency.snapshot(), bookPartyLatency.snapshot(),
+                emptyTableLatency.snapshot(), waitTime.snapshot(), queueDepth.sum(), noTablesAvailable.sum(), tables);
+    }
+
+    /**
+     * Counts the tables and waiting parties a restaurant already has when the metrics are installed.
+     */
+    void attach(final Restaurant restaurant) {
+        final long now = System.nanoTime();
+        for (Table table : restaurant.getEmptyTables()) tableAdded(table);
+        for (Table table : restaurant.getFilledTables()) {
+            tableAdded(table);
+            occupancy(table).occupied.increment();
+        }
+        for (Party party : restaurant.getSharedUnseatedParties()) {
+            party.bookedAt = now;
+            queueDepth.increment();
+        }
+    }
+
+    /**
+     * Uncounts what {@link #attach(Restaurant)} counted, as the restaurant stands when the metrics are removed.
+     */
+    void detach(final Restaurant restaurant) {
+        for (Table table : restaurant.getEmptyTables()) tableRemoved(table);
+        for (Table table : restaurant.getFilledTables()) {
+            tableRemoved(table);
+            occupancy(table).occupied.decrement();
+        }
+        queueDepth.add(-restaurant.waitingCount());
+    }
+
+    void recordSeatParty(final long nanos, final boolean noTables) {
+        seatPartyLatency.record(nanos);
+        if (noTables) noTablesAvailable.increment();
+    }
+
+    void recordBookParty(final long nanos) {
+        bookPartyLatency.record(nanos);
+    }
+
+    void recordEmptyTable(final long nanos) {
+        emptyTableLatency.record(nanos);
+    }
+
+    @Override
+    public void tableAdded(final Table table) {
+        occupancy(table).tables.increment();
+    }
+
+    @Override
+    public void tableRemoved(final Table table) {
+        occupancy(table).tables.decrement();
+    }
+
+    @Override
+    public void partyBooked(final Party party) {
+        party.bookedAt = System.nanoTime();
+        queueDepth.increment();
+    }
+
+    @Override
+    public void partyRemoved(final Party party) {
+        if (party.getSeatedTable() == null) queueDepth.decrement();
+    }
+
+    @Override
+    public void partySeated(final Seating seating) {
+        waitTime.record(System.nanoTime() - seating.getParty().bookedAt);
+        queueDepth.decrement();
+        for (Table table : seating.getTables()) occupancy(table).occupied.increment();
+    }
+
+    @Override
+    public void tableEmptied(final Table table, final Party party) {
+        occupancy(table).occupied.decrement();
+    }
+
+    @Override
+    public long getSeatPartyCount() {
+        return seatPartyLatency.snapshot().getCount();
+    }
+
+    @Override
+    public double getSeatPartyMeanNanos() {
+        return seatPartyLatency.snapshot().getMean();
+    }
+
+    @Override
+    public long getSeatPartyP99Nanos() {
+        return seatPartyLatency.snapshot().getValueAtQuantile(0.99);
+    }
+
+    @Override
+    public long getBookPartyCount() {
+        return bookPartyLatency.snapshot().getCount();
+    }
+
+    @Override
+    public double getBookPartyMeanNanos() {
+        return bookPartyLatency.snapshot().getMean();
+    }
+
+    @Override
+    public long getBookPartyP99Nanos() {
+        return bookPartyLatency.snapshot().getValueAtQuantile(0.99);
+    }
+
+    @Override
+    public long getEmptyTableCount() {
+        return emptyTableLatency.snapshot().getCount();
+    }
+
+    @Override
+    public double getEmptyTableMeanNanos() {
+        return emptyTableLatency.snapshot().getMean();
+    }
+
+    @Override
+    public long getEmptyTableP99Nanos() {
+        return emptyTableLatency.snapshot().getValueAtQuantile(0.99);
+    }
+
+    @Override
+    public long getSeatedCount() {
+        return waitTime.snapshot().getCount();
+    }
+
+    @Override
+    public double getWaitTimeMeanNanos() {
+        return waitTime.snapshot().getMean();
+    }
+
+    @Override
+    public long getWaitTimeP50Nanos() {
+        return waitTime.snapshot().getValueAtQuantile(0.5);
+    }
+
+    @Override
+    public long getWaitTimeP99Nanos() {
+        return waitTime.snapshot().getValueAtQuantile(0.99);
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return queueDepth.sum();
+    }
+
+    @Override
+    public long getNoTablesAvailableCount() {
+        return noTablesAvailable.sum();
+    }
+
+    @Override
+    public double getTableUtilization() {
+        return snapshot().getTableUtilization();
+    }
+
+    private Occupancy occupancy(final Table table) {
+        final Integer capacity = table.getTableCapacity();
+        Occupancy counts = occupancy.get(capacity);
+        if (counts == null) {
+            counts = new Occupancy();
+            final Occupancy raced = occupancy.putIfAbsent(capacity, counts);
+            if (raced != null) counts = raced;
+        }
+        return counts;
+    }
+
+    /**
+     * The number of tables of one capacity and how many of them are occupied.
+     */
+    private static final class Occupancy {
+        private final LongAdder tables = new LongAdder();
+        private final LongAdder occupied = new LongAdder();
+    }
+
+    /**
+     * The values of every metric at one moment.
+     * Rates, such as seatings or failed seatings per second, come from the difference between two snapshots.
+     */
+    public static final class Snapshot {
+        private final long nanoTime;
+        private final LatencyHistogram.Snapshot seatParty;
+        private final LatencyHistogram.Snapshot bookParty;
+        private final LatencyHistogram.Snapshot emptyTable;
+        private final LatencyHistogram.Snapshot waitTime;
+        private final long queueDepth;
+        private final long noTablesAvailable;
+        private final SortedMap<Integer, long[]> tables;
+
+        private Snapshot(long nanoTime, LatencyHistogram.Snapshot seatParty, LatencyHistogram.Snapshot bookParty,
+                         LatencyHistogram.Snapshot emptyTable, LatencyHistogram.Snapshot waitTime,
+                         long queueDepth, long noTablesAvailable, SortedMap<Integer, long[]> tables) {
+            this.nanoTime = nanoTime;
+            this.seatParty = seatParty;
+            this.bookParty = bookParty;
+            this.emptyTable = emptyTable;
+            this.waitTime = waitTime;
+            this.queueDepth = queueDepth;
+            this.noTablesAvailable = noTablesAvailable;
+            this.tables = tables;
+        }
+
+        /**
+         * @return The {@link System#nanoTime()} at which the snapshot was taken.
+         */
+        public long getNanoTime() {
+            return nanoTime;
+        }
+
+        /**
+         * @return The latency of {@code seatParty} and {@code trySeatParty} calls, in nanoseconds.
+         */
+        public LatencyHistogram.Snapshot getSeatPartyLatency() {
+            return seatParty;
+        }
+
+        /**
+         * @return The latency of {@code bookParty} calls, in nanoseconds, including any auto-seating they caused.
+         */
+        public LatencyHistogram.Snapshot getBookPartyLatency() {
+            return bookParty;
+        }
+
+        /**
+         * @return The latency of {@code emptyTable} calls, in nanoseconds, including any auto-seating they caused.
+         */
+        public LatencyHistogram.Snapshot getEmptyTableLatency() {
+            return emptyTable;
+        }
+
+        /**
+         * @return The time from booking to seating of every seated party, in nanoseconds.
+         */
+        public LatencyHistogram.Snapshot getWaitTime() {
+            return waitTime;
+        }
+
+        /**
+         * @return The number of parties waiting for a table.
+         */
+        public long getQueueDepth() {
+            return queueDepth;
+        }
+
+        /**
+         * @return The number of seating calls that found parties waiting but no table for any of them.
+         */
+        public long getNoTablesAvailableCount() {
+            return noTablesAvailable;
+        }
+
+        /**
+         * @return The capacities that have tables, smallest first.
+         */
+        public Set<Integer> getCapacities() {
+            return Collections.unmodifiableSet(tables.keySet());
+        }
+
+        public long getTableCount(final int capacity) {
+            final long[] counts = tables.get(capacity);
+            return counts == null ? 0 : counts[0];
+        }
+
+        public long getOccupiedCount(final int capacity) {
+            final long[] counts = tables.get(capacity);
+            return counts == null ? 0 : counts[1];
+        }
+
+        /**
+         * @return The fraction of the tables of a capacity that are occupied, from 0 to 1.
+         */
+        public double getTableUtilization(final int capacity) {
+            final long total = getTableCount(capacity);
+            return total == 0 ? 0 : (double) getOccupiedCount(capacity) / total;
+        }
+
+        /**
+         * @return The fraction of all tables that are occupied, from 0 to 1.
+         */
+        public double getTableUtilization() {
+            long total = 0;
+            long occupied = 0;
+            for (long[] counts : tables.values()) {
+                total += counts[0];
+                occupied += counts[1];
+            }
+            return total == 0 ? 0 : (double) occupied / total;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package restaurant;
+
+/**
+ * The JMX view of {@link RestaurantMetrics}. Durations are in nanoseconds.
+ */
+public interface RestaurantMetricsMXBean {
+    long getSeatPartyCount();
+
+    double getSeatPartyMeanNanos();
+
+    long getSeatPartyP99Nanos();
+
+    long getBookPartyCount();
+
+    double getBookPartyMeanNanos();
+
+    long getBookPartyP99Nanos();
+
+    long getEmptyTableCount();
+
+    double getEmptyTableMeanNanos();
+
+    long getEmptyTableP99Nanos();
+
+    long getSeatedCount();
+
+    double getWaitTimeMeanNanos();
+
+    long getWaitTimeP50Nanos();
+
+    long getWaitTimeP99Nanos();
+
+    long getQueueDepth();
+
+    long getNoTablesAvailableCount();
+
+    /**
+     * @return The fraction of tables that are occupied, from 0 to 1.
+     */
+    double getTableUtilization();
+}
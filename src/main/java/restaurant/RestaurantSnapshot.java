@@ -0,0 +1,320 @@
+package restaurant;
+
+import restaurant.exceptions.MissingTableException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary image of the full state of a {@link Restaurant}.
+ * <p>
+ * The image is a fixed header followed by one fixed-size record per table, one per party
+ * and one per pair of adjacent tables, so any record can be read in place with absolute gets on the underlying buffer.
+ * Tables and parties refer to each other by their index in the image, not by object reference.
+ * Empty tables come before filled tables.
+ * Waiting parties come first, in waitlist order, so the index of a waiting party is its queue position;
+ * they are followed by the seated parties, in the order of the filled tables that are their main table,
+ * and then by any party whose main table is already empty, at the first of its tables still filled.
+ * A party seated at several joined tables is referenced by each of them but records only its main table.
+ * <p>
+ * Version 1 images, written before tables could be joined, have a shorter header without the adjacency count
+ * and no adjacency section; they are still read, as restaurants without adjacent tables.
+ * <p>
+ * A snapshot wrapped around a buffer never copies it, which makes it cheap to read from a memory-mapped file
+ * or to inspect without rebuilding a restaurant.
+ */
+public final class RestaurantSnapshot {
+    private static final int MAGIC = 0x52534E50;
+    private static final short VERSION = 2;
+    private static final short VERSION_WITHOUT_EDGES = 1;
+
+    private static final int HEADER_SIZE = 28;
+    private static final int HEADER_SIZE_WITHOUT_EDGES = 24;
+    private static final int TABLE_RECORD_SIZE = 12;
+    private static final int PARTY_RECORD_SIZE = 13;
+    private static final int EDGE_RECORD_SIZE = 8;
+
+    private static final int NEXT_TABLE_ID = 8;
+    private static final int NEXT_PARTY_ID = 12;
+    private static final int TABLE_COUNT = 16;
+    private static final int PARTY_COUNT = 20;
+    private static final int EDGE_COUNT = 24;
+
+    private static final byte VIP = 1;
+
+    private final ByteBuffer buffer;
+    private final int headerSize;
+    private final int tableCount;
+    private final int partyCount;
+    private final int edgeCount;
+
+    private RestaurantSnapshot(ByteBuffer buffer) {
+        boolean hasEdges = buffer.getShort(4) != VERSION_WITHOUT_EDGES;
+        this.buffer = buffer;
+        this.headerSize = hasEdges ? HEADER_SIZE : HEADER_SIZE_WITHOUT_EDGES;
+        this.tableCount = buffer.getInt(TABLE_COUNT);
+        this.partyCount = buffer.getInt(PARTY_COUNT);
+        this.edgeCount = hasEdges ? buffer.getInt(EDGE_COUNT) : 0;
+    }
+
+    /**
+     * Captures the current state of a restaurant.
+     * @param restaurant The restaurant to capture.
+     * @return The snapshot, backed by a new heap buffer.
+     */
+    public static RestaurantSnapshot of(final Restaurant restaurant) {
+        List<Table> emptyTables = restaurant.getEmptyTablesView();
+        List<Table> filledTables = restaurant.getFilledTablesView();
+        List<Party> waitingParties = restaurant.getSharedUnseatedParties();
+        int tables = emptyTables.size() + filledTables.size();
+
+        // A party is recorded at its main table, or at the first of its tables still filled if the main table is not.
+        int[] filledParty = new int[filledTables.size()];
+        boolean[] recordsParty = new boolean[filledTables.size()];
+        Map<Party, Integer> seatedParties = new IdentityHashMap<Party, Integer>();
+        int parties = waitingParties.size();
+        for (int i = 0; i < filledTables.size(); ++i) {
+            Table table = filledTables.get(i);
+            if (table.getParty().getSeatedTable() != table) continue;
+            seatedParties.put(table.getParty(), parties);
+            recordsParty[i] = true;
+            filledParty[i] = parties++;
+        }
+        for (int i = 0; i < filledTables.size(); ++i) {
+            if (recordsParty[i]) continue;
+            Party party = filledTables.get(i).getParty();
+            Integer index = seatedParties.get(party);
+            if (index == null) {
+                index = parties++;
+                seatedParties.put(party, index);
+                recordsParty[i] = true;
+            }
+            filledParty[i] = index;
+        }
+        int edges = 0;
+        for (int i = 0; i < tables; ++i) {
+            edges += laterNeighbours(emptyTables, filledTables, i);
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + tables * TABLE_RECORD_SIZE + parties * PARTY_RECORD_SIZE
+                + edges * EDGE_RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putShort(VERSION).putShort((short) 0)
+                .putInt(restaurant.nextTableId()).putInt(restaurant.nextPartyId())
+                .putInt(tables).putInt(parties).putInt(edges);
+
+        for (Table table : emptyTables) {
+            out.putInt(table.getId()).putInt(table.getTableCapacity()).putInt(-1);
+        }
+        for (int i = 0; i < filledTables.size(); ++i) {
+            Table table = filledTables.get(i);
+            out.putInt(table.getId()).putInt(table.getTableCapacity()).putInt(filledParty[i]);
+        }
+
+        for (Party party : waitingParties) {
+            putParty(out, party, -1);
+        }
+        for (int i = 0; i < filledTables.size(); ++i) {
+            Table table = filledTables.get(i);
+            if (recordsParty[i] && table.getParty().getSeatedTable() == table) putParty(out, table.getParty(), emptyTables.size() + i);
+        }
+        for (int i = 0; i < filledTables.size(); ++i) {
+            Table table = filledTables.get(i);
+            if (recordsParty[i] && table.getParty().getSeatedTable() != table) putParty(out, table.getParty(), emptyTables.size() + i);
+        }
+
+        for (int i = 0; i < tables; ++i) {
+            Table table = i < emptyTables.size() ? emptyTables.get(i) : filledTables.get(i - emptyTables.size());
+            for (Table other : table.getAdjacentTables()) {
+                int j = index(emptyTables, other);
+                if (j > i) out.putInt(i).putInt(j);
+            }
+        }
+
+        out.flip();
+        return new RestaurantSnapshot(out);
+    }
+
+    /**
+     * Reads a snapshot from the remaining bytes of a buffer without copying them.
+     * Images of the current version and of version 1 are accepted.
+     * @param buffer The buffer holding the image, for example a mapped snapshot file.
+     * @return The snapshot.
+     * @throws IllegalArgumentException If the buffer does not hold a complete snapshot.
+     */
+    public static RestaurantSnapshot wrap(final ByteBuffer buffer) {
+        ByteBuffer in = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < HEADER_SIZE_WITHOUT_EDGES || in.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a restaurant snapshot");
+        }
+        short version = in.getShort(4);
+        if (version != VERSION && version != VERSION_WITHOUT_EDGES) {
+            throw new IllegalArgumentException("Unsupported restaurant snapshot version " + version);
+        }
+        boolean hasEdges = version != VERSION_WITHOUT_EDGES;
+        if (hasEdges && in.remaining() < HEADER_SIZE) throw new IllegalArgumentException("Truncated restaurant snapshot");
+        int edges = hasEdges ? in.getInt(EDGE_COUNT) : 0;
+        long size = (hasEdges ? HEADER_SIZE : HEADER_SIZE_WITHOUT_EDGES) + (long) in.getInt(TABLE_COUNT) * TABLE_RECORD_SIZE
+                + (long) in.getInt(PARTY_COUNT) * PARTY_RECORD_SIZE + (long) edges * EDGE_RECORD_SIZE;
+        if (in.getInt(TABLE_COUNT) < 0 || in.getInt(PARTY_COUNT) < 0 || edges < 0 || in.remaining() < size) {
+            throw new IllegalArgumentException("Truncated restaurant snapshot");
+        }
+        in.limit((int) size);
+        return new RestaurantSnapshot(in);
+    }
+
+    /**
+     * @return A read-only view of the image, positioned at its first byte.
+     */
+    public ByteBuffer buffer() {
+        return buffer.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Builds a new restaurant with the captured tables, occupancy, waitlist order and ids.
+     * @return The restored restaurant.
+     * @throws IllegalArgumentException If the image is inconsistent, such as a record referring to a table
+     * or party that is not in the image, or two parties seated at one table.
+     */
+    public Restaurant restore() {
+        Restaurant restaurant = new Restaurant();
+        restaurant.restoreNextIds(buffer.getInt(NEXT_TABLE_ID), buffer.getInt(NEXT_PARTY_ID));
+
+        Table[] tables = new Table[tableCount];
+        for (int i = 0; i < tableCount; ++i) {
+            if (tableCapacity(i) <= 0) throw new IllegalArgumentException("Table " + i + " has no seats");
+            tables[i] = restaurant.restoreTable(tableId(i), tableCapacity(i));
+        }
+        Party[] parties = new Party[partyCount];
+        for (int i = 0; i < partyCount; ++i) {
+            if (partySize(i) <= 0) throw new IllegalArgumentException("Party " + i + " has no guests");
+            parties[i] = restaurant.restoreParty(partyId(i), partySize(i), isVIP(i));
+            int table = partyTable(i);
+            if (table == -1) continue;
+            checkIndex("Party " + i + " sits at table", table, tableCount);
+            if (!restaurant.restoreSeating(parties[i], tables[table])) {
+                throw new IllegalArgumentException("Party " + i + " cannot be seated at table " + table);
+            }
+        }
+        for (int i = 0; i < tableCount; ++i) {
+            int party = tableParty(i);
+            if (party == -1) continue;
+            checkIndex("Table " + i + " seats party", party, partyCount);
+            if (partyTable(party) == i) continue;
+            if (!restaurant.restoreJoinedTable(parties[party], tables[i])) {
+                throw new IllegalArgumentException("Party " + party + " cannot be joined at table " + i);
+            }
+        }
+        for (int i = 0; i < edgeCount; ++i) {
+            checkIndex("Adjacency " + i + " joins table", edgeTable(i), tableCount);
+            checkIndex("Adjacency " + i + " joins table", edgeOther(i), tableCount);
+            try {
+                restaurant.joinTables(tables[edgeTable(i)], tables[edgeOther(i)]);
+            } catch (MissingTableException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return restaurant;
+    }
+
+    public int tableCount() {
+        return tableCount;
+    }
+
+    public int partyCount() {
+        return partyCount;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @return The index of the first table of a pair of adjacent tables.
+     */
+    public int edgeTable(final int edge) {
+        return buffer.getInt(edgeOffset(edge));
+    }
+
+    /**
+     * @return The index of the second table of a pair of adjacent tables, always larger than the first.
+     */
+    public int edgeOther(final int edge) {
+        return buffer.getInt(edgeOffset(edge) + 4);
+    }
+
+    public int tableId(final int table) {
+        return buffer.getInt(tableOffset(table));
+    }
+
+    public int tableCapacity(final int table) {
+        return buffer.getInt(tableOffset(table) + 4);
+    }
+
+    /**
+     * @return The index of the party seated at the table, or -1 if the table is empty.
+     */
+    public int tableParty(final int table) {
+        return buffer.getInt(tableOffset(table) + 8);
+    }
+
+    public int partyId(final int party) {
+        return buffer.getInt(partyOffset(party));
+    }
+
+    public int partySize(final int party) {
+        return buffer.getInt(partyOffset(party) + 4);
+    }
+
+    /**
+     * @return The index of the table the party is seated at, or -1 if the party is waiting.
+     */
+    public int partyTable(final int party) {
+        return buffer.getInt(partyOffset(party) + 8);
+    }
+
+    public boolean isVIP(final int party) {
+        return (buffer.get(partyOffset(party) + 12) & VIP) != 0;
+    }
+
+    private int tableOffset(final int table) {
+        if (table < 0 || table >= tableCount) throw new IndexOutOfBoundsException("table " + table);
+        return headerSize + table * TABLE_RECORD_SIZE;
+    }
+
+    private int partyOffset(final int party) {
+        if (party < 0 || party >= partyCount) throw new IndexOutOfBoundsException("party " + party);
+        return headerSize + tableCount * TABLE_RECORD_SIZE + party * PARTY_RECORD_SIZE;
+    }
+
+    private int edgeOffset(final int edge) {
+        if (edge < 0 || edge >= edgeCount) throw new IndexOutOfBoundsException("edge " + edge);
+        return headerSize + tableCount * TABLE_RECORD_SIZE + partyCount * PARTY_RECORD_SIZE + edge * EDGE_RECORD_SIZE;
+    }
+
+    private static void checkIndex(final String what, final int index, final int count) {
+        if (index < 0 || index >= count) throw new IllegalArgumentException(what + " " + index + ", which is not in the snapshot");
+    }
+
+    /**
+     * @return The index in the image of a table, which sits in the empty or filled list at its slot.
+     */
+    private static int index(final List<Table> emptyTables, final Table table) {
+        return table.isOccupied() ? emptyTables.size() + table.slot : table.slot;
+    }
+
+    private static int laterNeighbours(final List<Table> emptyTables, final List<Table> filledTables, final int i) {
+        Table table = i < emptyTables.size() ? emptyTables.get(i) : filledTables.get(i - emptyTables.size());
+        int count = 0;
+        for (Table other : table.getAdjacentTables()) {
+            if (index(emptyTables, other) > i) ++count;
+        }
+        return count;
+    }
+
+    private static void putParty(final ByteBuffer out, final Party party, final int table) {
+        out.putInt(party.getId()).putInt(party.getPartySize()).putInt(table).put(party.isVIP() ? VIP : 0);
+    }
+}
@@ -0,0 +1,97 @@
+package restaurant;
+
+import restaurant.RestaurantEvent.PartyState;
+import restaurant.RestaurantEvent.TableState;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * A consistent, immutable picture of a restaurant at one moment: its tables, who sits at them,
+ * and the waitlist in booking order, as returned by {@link Restaurant#snapshot()}.
+ * <p>
+ * A view is made of persistent maps that share structure with the views before and after it,
+ * so taking one costs a single volatile read and holding one costs nothing more than the changes since.
+ * Any thread may read a view for as long as it likes while the restaurant keeps changing.
+ */
+public final class RestaurantView {
+    private final long version;
+    private final PersistentMap<TableState> tables;
+    private final PersistentMap<PartyState> parties;
+    private final PersistentMap<PartyState> vipWaiting;
+    private final PersistentMap<PartyState> regularWaiting;
+    private final int filledTables;
+
+    RestaurantView(final long version, final PersistentMap<TableState> tables, final PersistentMap<PartyState> parties,
+                   final PersistentMap<PartyState> vipWaiting, final PersistentMap<PartyState> regularWaiting,
+                   final int filledTables) {
+        this.version = version;
+        this.tables = tables;
+        this.parties = parties;
+        this.vipWaiting = vipWaiting;
+        this.regularWaiting = regularWaiting;
+        this.filledTables = filledTables;
+    }
+
+    /**
+     * @return A number that grows with every change to the restaurant since snapshots were enabled.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Every table, in order of id.
+     */
+    public List<TableState> getTables() {
+        return tables.values();
+    }
+
+    /**
+     * @return The table with the id, or null if the restaurant has no such table.
+     */
+    public TableState getTable(final int id) {
+        return tables.get(id);
+    }
+
+    public int getTableCount() {
+        return tables.size();
+    }
+
+    public int getFilledTableCount() {
+        return filledTables;
+    }
+
+    /**
+     * @return The party with the id, waiting or seated, or null if the restaurant has no such party.
+     */
+    public PartyState getParty(final int id) {
+        return parties.get(id);
+    }
+
+    /**
+     * @return The waiting parties in booking order per lane: VIP parties first, then the others,
+     * each lane with the earliest booked parties first. This is the order of {@link Restaurant#getUnseatedParties()},
+     * not necessarily the order the seating policy will seat them in, since a policy may pass over a party
+     * that fits no free table or prefer one that fills a table better.
+     */
+    public List<PartyState> getWaitingParties() {
+        return new AbstractList<PartyState>() {
+            @Override
+            public PartyState get(final int index) {
+                if (index < 0 || index >= size()) throw new IndexOutOfBoundsException(Integer.toString(index));
+                final int vips = vipWaiting.size();
+                return index < vips ? vipWaiting.valueAt(index) : regularWaiting.valueAt(index - vips);
+            }
+
+            @Override
+            public int size() {
+                return getWaitingCount();
+            }
+        };
+    }
+
+    public int getWaitingCount() {
+        return vipWaiting.size() + regularWaiting.size();
+    }
+}
@@ -0,0 +1,46 @@
+package restaurant;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records that a party was seated at a table, or at several adjacent tables pushed together.
+ */
+public final class Seating {
+    private final Party party;
+    private final Table table;
+    private final List<Table> tables;
+
+    public Seating(Party party, Table table) {
+        this.party = party;
+        this.table = table;
+        this.tables = Collections.singletonList(table);
+    }
+
+    /**
+     * @param tables The tables the party was seated at, its main table first.
+     */
+    public Seating(Party party, List<Table> tables) {
+        this.party = party;
+        this.table = tables.get(0);
+        this.tables = Collections.unmodifiableList(tables);
+    }
+
+    public Party getParty() {
+        return party;
+    }
+
+    /**
+     * @return The table the party was seated at, or its main table if several were joined.
+     */
+    public Table getTable() {
+        return table;
+    }
+
+    /**
+     * @return Every table the party was seated at, its main table first.
+     */
+    public List<Table> getTables() {
+        return tables;
+    }
+}
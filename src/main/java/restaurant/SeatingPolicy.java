@@ -0,0 +1,34 @@
+package restaurant;
+
+/**
+ * Decides which waiting party a {@link Restaurant} seats next, and at which tables.
+ * <p>
+ * A policy serves one restaurant at a time. It hears about every change to that restaurant through the
+ * {@link RestaurantListener} callbacks, before any registered listener, so it can keep whatever indexes
+ * make its decision cheap instead of searching the whole floor on every call.
+ * The restaurant asks for one seating at a time and applies it, which the policy also hears about, before asking again.
+ * <p>
+ * The built-in policies are {@link BestFitPolicy}, the default, {@link UtilizationPolicy}, {@link AgingPolicy}
+ * and {@link SectionBalancingPolicy}.
+ */
+public interface SeatingPolicy extends RestaurantListener {
+    /**
+     * Starts deciding for a restaurant, indexing its current tables and waiting parties.
+     * @param restaurant The restaurant to decide for.
+     * @throws IllegalStateException If the policy is already serving a restaurant.
+     */
+    void attach(Restaurant restaurant);
+
+    /**
+     * Stops deciding for a restaurant and drops everything indexed for it.
+     * @param restaurant The restaurant the policy was attached to.
+     */
+    void detach(Restaurant restaurant);
+
+    /**
+     * Chooses the next seating. This method must not modify the restaurant.
+     * @return The waiting party to seat with the empty tables to seat it at, its main table first,
+     * or null if no waiting party can be seated.
+     */
+    Seating next();
+}
@@ -0,0 +1,167 @@
+package restaurant;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A seating policy that spreads guests evenly over the server sections of the floor.
+ * <p>
+ * It picks parties like {@link BestFitPolicy}, but seats each at a fitting empty table in the section
+ * with the fewest guests currently seated, preferring the smallest such table.
+ * Tables are in section 0 until {@link #assignSection(Table, int)} moves them.
+ * Every section keeps its own index of empty tables by capacity, so a decision costs one lookup per section.
+ * Parties seated at joined tables count towards the section of their main table.
+ * Tables are indexed by capacity, which a restaurant does not let change while it holds a table.
+ * Detaching the policy clears the empty tables and guest counts it tracked, but keeps the section assignments,
+ * so attaching it again restores the same sections.
+ */
+public final class SectionBalancingPolicy extends BestFitPolicy {
+    private final Map<Table, Section> sectionOf = new HashMap<Table, Section>();
+    private final Map<Integer, Section> sections = new HashMap<Integer, Section>();
+    private final List<Section> sectionList = new ArrayList<Section>();
+
+    /**
+     * Puts a table in a server section. Tables may be assigned before or after the policy is attached.
+     * @param table The table to move.
+     * @param section The number of the section.
+     */
+    public void assignSection(final Table table, final int section) {
+        final Section from = sectionOf.get(table);
+        final Section to = section(section);
+        if (from == to) return;
+
+        sectionOf.put(table, to);
+        if (from == null || restaurant == null || table.restaurant != restaurant) return;
+        if (!table.isOccupied()) {
+            from.removeFree(table);
+            to.addFree(table);
+        } else if (table.getParty().getSeatedTable() == table) {
+            from.guests -= table.getParty().getPartySize();
+            to.guests += table.getParty().getPartySize();
+        }
+    }
+
+    /**
+     * @return The number of guests seated in a section.
+     */
+    public int getSeatedGuests(final int section) {
+        final Section s = sections.get(section);
+        return s == null ? 0 : s.guests;
+    }
+
+    @Override
+    public void attach(final Restaurant restaurant) {
+        super.attach(restaurant);
+        for (Table table : restaurant.getEmptyTables()) tableAdded(table);
+        for (Table table : restaurant.getFilledTables()) {
+            final Section section = sectionOf(table);
+            if (table.getParty().getSeatedTable() == table) section.guests += table.getParty().getPartySize();
+        }
+    }
+
+    @Override
+    public void detach(final Restaurant restaurant) {
+        if (this.restaurant == restaurant) {
+            for (Section section : sectionList) {
+                section.freeTables.clear();
+                section.guests = 0;
+            }
+        }
+        super.detach(restaurant);
+    }
+
+    @Override
+    Table chooseTable(final Party party) {
+        Table best = null;
+        int bestGuests = Integer.MAX_VALUE;
+        for (int i = 0; i < sectionList.size(); ++i) {
+            final Section section = sectionList.get(i);
+            if (section.guests > bestGuests) continue;
+            final Table table = section.bestFit(party.getPartySize());
+            if (table == null) continue;
+            if (section.guests < bestGuests || table.getTableCapacity() < best.getTableCapacity()) {
+                best = table;
+                bestGuests = section.guests;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void tableAdded(final Table table) {
+        super.tableAdded(table);
+        sectionOf(table).addFree(table);
+    }
+
+    @Override
+    public void tableRemoved(final Table table) {
+        super.tableRemoved(table);
+        final Section section = sectionOf.remove(table);
+        if (section != null) section.removeFree(table);
+    }
+
+    @Override
+    public void tableEmptied(final Table table, final Party party) {
+        super.tableEmptied(table, party);
+        final Section section = sectionOf(table);
+        section.addFree(table);
+        if (party.getSeatedTable() == table) section.guests -= party.getPartySize();
+    }
+
+    @Override
+    public void partySeated(final Seating seating) {
+        super.partySeated(seating);
+        for (Table table : seating.getTables()) sectionOf(table).removeFree(table);
+        sectionOf(seating.getTable()).guests += seating.getParty().getPartySize();
+    }
+
+    private Section sectionOf(final Table table) {
+        Section section = sectionOf.get(table);
+        if (section == null) {
+            section = section(0);
+            sectionOf.put(table, section);
+        }
+        return section;
+    }
+
+    private Section section(final int number) {
+        Section section = sections.get(number);
+        if (section == null) {
+            section = new Section();
+            sections.put(number, section);
+            sectionList.add(section);
+        }
+        return section;
+    }
+
+    /**
+     * The empty tables of one section by capacity, and the number of guests seated there.
+     */
+    private static final class Section {
+        private final TreeMap<Integer, LinkedHashSet<Table>> freeTables = new TreeMap<Integer, LinkedHashSet<Table>>();
+        private int guests = 0;
+
+        private void addFree(final Table table) {
+            LinkedHashSet<Table> bucket = freeTables.get(table.getTableCapacity());
+            if (bucket == null) {
+                bucket = new LinkedHashSet<Table>();
+                freeTables.put(table.getTableCapacity(), bucket);
+            }
+            bucket.add(table);
+        }
+
+        private void removeFree(final Table table) {
+            final LinkedHashSet<Table> bucket = freeTables.get(table.getTableCapacity());
+            if (bucket != null && bucket.remove(table) && bucket.isEmpty()) freeTables.remove(table.getTableCapacity());
+        }
+
+        private Table bestFit(final int size) {
+            final Map.Entry<Integer, LinkedHashSet<Table>> entry = freeTables.ceilingEntry(size);
+            return entry == null ? null : entry.getValue().iterator().next();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package restaurant;
+
+/**
+ * The outcome of a non-throwing restaurant operation.
+ * Each failure constant matches the exception thrown by the corresponding throwing operation.
+ */
+public enum Status {
+    /** The operation succeeded. */
+    OK,
+    /** No parties are waiting, so there was nothing to seat. */
+    NO_PARTIES_WAITING,
+    /** No empty table can seat any waiting party. */
+    NO_TABLES_AVAILABLE,
+    /** The table is null or not part of the restaurant. */
+    MISSING_TABLE,
+    /** The table is occupied by a party. */
+    OCCUPIED_TABLE,
+    /** The party is null or not part of the restaurant. */
+    MISSING_PARTY
+}
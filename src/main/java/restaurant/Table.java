@@ -1,14 +1,49 @@
 package restaurant;
 
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A table that seats at most one party at a time.
+ * Tables are plain objects rather than handles into primitive arrays: callers hold and compare them, and a restaurant
+ * keeps its lookup state (list slot, capacity bucket) on the table itself, so a second packed copy would only have to
+ * be kept in step with it. Best-fit search goes through {@link CapacityIndex}, which touches only the distinct
+ * capacities and never scans the tables.
+ */
 public class Table {
     private Party party = null;
     private int tableCapacity = 0;
     private boolean isOccupied = false;
+    int id = 0;
+
+    // Handles maintained by the owning restaurant; slot indexes its empty or filled table list.
+    Restaurant restaurant = null;
+    // Set while a ConcurrentRestaurant holds the table, which keeps no back reference.
+    boolean held = false;
+    int slot = -1;
+    CapacityIndex.Bucket freeBucket = null;
+    int freeSlot = -1;
+    List<Table> adjacent = null;
+    long occupiedSince = 0;
 
     protected Table(int capacity) {
         this.setTableCapacity(capacity);
     }
 
+    /**
+     * @return The number the owning restaurant gave this table, unique within that restaurant.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return The tables this table can be pushed together with.
+     */
+    public List<Table> getAdjacentTables() {
+        return adjacent == null ? Collections.<Table>emptyList() : Collections.unmodifiableList(adjacent);
+    }
+
     public Party getParty() {
         return party;
     }
@@ -17,20 +52,50 @@ public class Table {
         return this.isOccupied;
     }
     
+    /**
+     * Frees a table that belongs to no restaurant.
+     * A restaurant indexes its tables by state and capacity, so a table it holds may only be freed through it;
+     * this method throws an {@link IllegalStateException} if the table belongs to one.
+     */
     public void freeTable() {
-        this.isOccupied = false;
+        checkDetached();
+        vacate();
     }
 
 	public int getTableCapacity() {
 		return tableCapacity;
 	}
 
+	/**
+	 * Changes the capacity of a table that belongs to no restaurant.
+	 * To resize a table in a restaurant, remove it and add one of the new capacity;
+	 * this method throws an {@link IllegalStateException} if the table belongs to one.
+	 */
 	public void setTableCapacity(int tableCapacity) {
+		checkDetached();
 		this.tableCapacity = tableCapacity;
 	}
 
+	/**
+	 * Occupies a table that belongs to no restaurant.
+	 * This method throws an {@link IllegalStateException} if the table belongs to one, which seats parties itself.
+	 */
 	public void OccupyTable(Party party) {
-		this.isOccupied = true;
-		this.party = party;
+		checkDetached();
+		occupy(party);
 	}
+
+    void occupy(final Party party) {
+        this.isOccupied = true;
+        this.party = party;
+    }
+
+    void vacate() {
+        this.isOccupied = false;
+        this.party = null;
+    }
+
+    private void checkDetached() {
+        if (restaurant != null || held) throw new IllegalStateException("Table " + id + " belongs to a restaurant");
+    }
 }
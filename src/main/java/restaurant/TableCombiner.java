@@ -0,0 +1,133 @@
+package restaurant;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the best set of adjacent empty tables to push together for a party too large for any single empty table.
+ * <p>
+ * The best set is connected in the adjacency graph, seats the whole party, has as few tables as possible,
+ * and among those wastes the fewest seats.
+ * Connected sets are enumerated with the ESU algorithm, which visits each connected set exactly once
+ * by growing it only with tables whose id is larger than the id of its first table.
+ * The search is bounded by the maximum number of tables that may be joined, stops growing a set as soon as it seats
+ * the party, never grows a set past the size of the best set found so far, and drops a set early when even its
+ * largest possible extension could not seat the party.
+ * The extension of each depth lives in a scratch array kept from one search to the next, so a search allocates nothing
+ * once the arrays have grown to fit the floor.
+ */
+final class TableCombiner {
+    private Table[] current = new Table[0];
+    private Table[] best = new Table[0];
+    // extensions[count] holds the tables that may grow a set of count tables, extensionSizes[count] how many.
+    private Table[][] extensions = new Table[0][];
+    private int[] extensionSizes = new int[0];
+    private int bestCount;
+    private int bestCapacity;
+    private int maxTables;
+    private int maxFreeCapacity;
+    private int partySize;
+
+    /**
+     * @param emptyTables The empty tables of the restaurant.
+     * @param size The size of the party.
+     * @param maxTables The maximum number of tables to join.
+     * @return The tables to join, largest first, or null if no set of at most the given number of tables seats the party.
+     */
+    List<Table> find(final List<Table> emptyTables, final int size, final int maxTables) {
+        if (maxTables < 2) return null;
+        if (current.length < maxTables) {
+            current = new Table[maxTables];
+            best = new Table[maxTables];
+            extensions = Arrays.copyOf(extensions, maxTables + 1);
+            extensionSizes = new int[maxTables + 1];
+            for (int i = 0; i <= maxTables; ++i) {
+                if (extensions[i] == null) extensions[i] = new Table[8];
+            }
+        }
+        this.maxTables = maxTables;
+        this.partySize = size;
+        bestCount = maxTables + 1;
+        bestCapacity = Integer.MAX_VALUE;
+
+        maxFreeCapacity = 0;
+        for (int i = 0; i < emptyTables.size(); ++i) {
+            Table table = emptyTables.get(i);
+            if (table.adjacent != null) maxFreeCapacity = Math.max(maxFreeCapacity, table.getTableCapacity());
+        }
+        if (maxFreeCapacity == 0) return null;
+
+        for (int i = 0; i < emptyTables.size(); ++i) {
+            Table seed = emptyTables.get(i);
+            if (seed.adjacent == null) continue;
+            current[0] = seed;
+            extensionSizes[1] = 0;
+            for (Table neighbour : seed.adjacent) {
+                if (!neighbour.isOccupied() && neighbour.getId() > seed.getId()) push(1, neighbour);
+            }
+            extend(1, seed.getTableCapacity(), seed);
+        }
+
+        if (bestCount > maxTables) return null;
+        Table[] tables = Arrays.copyOf(best, bestCount);
+        Arrays.sort(tables, (t1, t2) -> Integer.compare(t2.getTableCapacity(), t1.getTableCapacity()));
+        return Arrays.asList(tables);
+    }
+
+    /**
+     * Grows the current set of count tables with each table of its extension in turn, consuming the extension.
+     */
+    private void extend(final int count, final int capacity, final Table seed) {
+        if (capacity >= partySize) {
+            if (count < bestCount || capacity < bestCapacity) {
+                System.arraycopy(current, 0, best, 0, count);
+                bestCount = count;
+                bestCapacity = capacity;
+            }
+            return;
+        }
+        int limit = Math.min(maxTables, bestCount);
+        if (count >= limit) return;
+        if (capacity + (long) (limit - count) * maxFreeCapacity < partySize) return;
+
+        final Table[] extension = extensions[count];
+        while (extensionSizes[count] > 0) {
+            Table next = extension[--extensionSizes[count]];
+            int remaining = extensionSizes[count];
+            extensionSizes[count + 1] = 0;
+            for (int i = 0; i < remaining; ++i) push(count + 1, extension[i]);
+            for (Table neighbour : next.adjacent) {
+                if (neighbour.isOccupied() || neighbour.getId() <= seed.getId()) continue;
+                if (contains(current, count, neighbour)) continue;
+                if (contains(extensions[count + 1], extensionSizes[count + 1], neighbour)) continue;
+                if (adjacentToAny(neighbour, count)) continue;
+                push(count + 1, neighbour);
+            }
+            current[count] = next;
+            extend(count + 1, capacity + next.getTableCapacity(), seed);
+        }
+    }
+
+    private void push(final int count, final Table table) {
+        Table[] extension = extensions[count];
+        if (extensionSizes[count] == extension.length) extensions[count] = extension = Arrays.copyOf(extension, extension.length * 2);
+        extension[extensionSizes[count]++] = table;
+    }
+
+    /**
+     * @return Whether the table neighbours one of the first tables of the current set, and so is already in its extension.
+     */
+    private boolean adjacentToAny(final Table table, final int count) {
+        for (int i = 0; i < count; ++i) {
+            if (current[i].adjacent.contains(table)) return true;
+        }
+        return false;
+    }
+
+    private static boolean contains(final Table[] tables, final int count, final Table table) {
+        for (int i = 0; i < count; ++i) {
+            if (tables[i] == table) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,22 @@
+package restaurant;
+
+/**
+ * A span of time from {@code start} inclusive to {@code end} exclusive.
+ */
+public final class TimeWindow {
+    private final long start;
+    private final long end;
+
+    public TimeWindow(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+}
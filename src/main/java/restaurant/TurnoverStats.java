@@ -0,0 +1,53 @@
+package restaurant;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming statistics of how long parties occupy tables, per table capacity.
+ * <p>
+ * Each capacity keeps a running mean that is a plain average over its first {@value #WARM_UP} visits
+ * and an exponentially weighted average with weight 1/{@value #WARM_UP} after that,
+ * so it settles quickly and then follows the pace of service as it changes over the day.
+ * Recording a visit is constant time and allocation-free once a capacity has been seen.
+ */
+final class TurnoverStats {
+    private static final int WARM_UP = 10;
+
+    private final Map<Integer, Mean> byCapacity = new HashMap<Integer, Mean>();
+    private final Mean overall = new Mean();
+
+    /**
+     * @param capacity The capacity of the table.
+     * @param duration How long the party occupied the table.
+     */
+    void record(final int capacity, final long duration) {
+        Mean mean = byCapacity.get(capacity);
+        if (mean == null) {
+            mean = new Mean();
+            byCapacity.put(capacity, mean);
+        }
+        mean.add(duration);
+        overall.add(duration);
+    }
+
+    /**
+     * @return The mean occupancy of tables of the capacity, the mean over all tables if none of that capacity
+     * has been emptied yet, or -1 if no table has.
+     */
+    double mean(final int capacity) {
+        final Mean mean = byCapacity.get(capacity);
+        if (mean != null) return mean.value;
+        return overall.count > 0 ? overall.value : -1;
+    }
+
+    private static final class Mean {
+        private long count = 0;
+        private double value = 0;
+
+        private void add(final long duration) {
+            ++count;
+            value += (duration - value) / Math.min(count, WARM_UP);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package restaurant;
+
+/**
+ * A seating policy that fills seats rather than honouring the queue order: of all the waiting parties
+ * that fit at some empty table, it seats the one that leaves the fewest empty seats at its smallest fitting table.
+ * Ties go to the party that comes first in the queue, VIPs first.
+ * When no waiting party fits at a single table, it falls back to seating a party at joined tables
+ * like {@link BestFitPolicy}.
+ * <p>
+ * Waiting parties are indexed by size, so each decision looks at one party and one table per distinct party size.
+ */
+public final class UtilizationPolicy extends BestFitPolicy {
+    @Override
+    public Seating next() {
+        final CapacityIndex freeTables = restaurant.freeTableIndex();
+        Party best = null;
+        Table bestTable = null;
+        int bestWaste = Integer.MAX_VALUE;
+
+        for (Integer size : waiting.sizes().headSet(freeTables.largestCapacity(), true)) {
+            final Table table = freeTables.peekBestFit(size);
+            final int waste = table.getTableCapacity() - size;
+            if (waste > bestWaste) continue;
+            final Party party = waiting.first(size, size);
+            if (waste < bestWaste || waiting.precedes(party, best)) {
+                best = party;
+                bestTable = table;
+                bestWaste = waste;
+            }
+        }
+        return best != null ? new Seating(best, bestTable) : super.next();
+    }
+}
@@ -0,0 +1,143 @@
+package restaurant;
+
+import restaurant.RestaurantEvent.PartyState;
+import restaurant.RestaurantEvent.TableState;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the current {@link RestaurantView} of a restaurant, replacing it after every change.
+ * Each event updates the persistent maps in O(log n) on the restaurant's thread, and the view is published
+ * only when the restaurant reports its whole change complete, so a change that fires several events
+ * (emptying joined tables, then seating the waitlist) is published as one view.
+ * Views go out through a volatile field, so readers never lock and never see a change half made.
+ */
+final class ViewTracker implements RestaurantListener {
+    private static final int[] NO_TABLES = new int[0];
+
+    private volatile RestaurantView current;
+
+    // Confined to the restaurant's thread.
+    private PersistentMap<TableState> tables = PersistentMap.empty();
+    private PersistentMap<PartyState> parties = PersistentMap.empty();
+    private PersistentMap<PartyState> vipWaiting = PersistentMap.empty();
+    private PersistentMap<PartyState> regularWaiting = PersistentMap.empty();
+    private int filledTables = 0;
+    private long version = 0;
+    private boolean dirty = false;
+    // Waiting parties are ordered by a key handed out as they join the queue, since restored ids need not be.
+    private final Map<Integer, Integer> waitKeys = new HashMap<Integer, Integer>();
+    private int nextWaitKey = 0;
+
+    ViewTracker(final Restaurant restaurant) {
+        for (Table table : restaurant.getEmptyTables()) putTable(table, 0);
+        for (Table table : restaurant.getFilledTables()) {
+            Party party = table.getParty();
+            putTable(table, party.getId());
+            ++filledTables;
+            if (party.getSeatedTable() == table) parties = parties.put(party.getId(), state(party, party.getSeatedTables()));
+        }
+        restaurant.forEachWaiting(this::addWaiting);
+        dirty = true;
+        publish();
+    }
+
+    RestaurantView current() {
+        return current;
+    }
+
+    @Override
+    public void tableAdded(final Table table) {
+        putTable(table, 0);
+        dirty = true;
+    }
+
+    @Override
+    public void tableRemoved(final Table table) {
+        tables = tables.remove(table.getId());
+        dirty = true;
+    }
+
+    @Override
+    public void partyBooked(final Party party) {
+        addWaiting(party);
+        dirty = true;
+    }
+
+    @Override
+    public void partyRemoved(final Party party) {
+        removeWaiting(party);
+        parties = parties.remove(party.getId());
+        dirty = true;
+    }
+
+    @Override
+    public void partySeated(final Seating seating) {
+        Party party = seating.getParty();
+        removeWaiting(party);
+        parties = parties.put(party.getId(), state(party, seating.getTables()));
+        for (Table table : seating.getTables()) putTable(table, party.getId());
+        filledTables += seating.getTables().size();
+        dirty = true;
+    }
+
+    @Override
+    public void tableEmptied(final Table table, final Party party) {
+        putTable(table, 0);
+        --filledTables;
+        PartyState state = parties.get(party.getId());
+        if (state != null && !seatedAtAny(state)) parties = parties.remove(party.getId());
+        dirty = true;
+    }
+
+    @Override
+    public void changeCompleted() {
+        publish();
+    }
+
+    /**
+     * Publishes the maps as a new view if any event has changed them since the last one.
+     */
+    private void publish() {
+        if (!dirty) return;
+        dirty = false;
+        current = new RestaurantView(++version, tables, parties, vipWaiting, regularWaiting, filledTables);
+    }
+
+    private void addWaiting(final Party party) {
+        PartyState state = state(party, null);
+        int key = nextWaitKey++;
+        waitKeys.put(party.getId(), key);
+        parties = parties.put(party.getId(), state);
+        if (party.isVIP()) vipWaiting = vipWaiting.put(key, state);
+        else regularWaiting = regularWaiting.put(key, state);
+    }
+
+    private void removeWaiting(final Party party) {
+        Integer key = waitKeys.remove(party.getId());
+        if (key == null) return;
+        if (party.isVIP()) vipWaiting = vipWaiting.remove(key);
+        else regularWaiting = regularWaiting.remove(key);
+    }
+
+    private void putTable(final Table table, final int partyId) {
+        tables = tables.put(table.getId(), new TableState(table.getId(), table.getTableCapacity(), partyId));
+    }
+
+    private boolean seatedAtAny(final PartyState party) {
+        for (int i = 0; i < party.getTableCount(); ++i) {
+            TableState table = tables.get(party.getTableId(i));
+            if (table != null && table.getPartyId() == party.getId()) return true;
+        }
+        return false;
+    }
+
+    private static PartyState state(final Party party, final List<Table> tables) {
+        if (tables == null) return new PartyState(party.getId(), party.getPartySize(), party.isVIP(), NO_TABLES);
+        int[] ids = new int[tables.size()];
+        for (int i = 0; i < ids.length; ++i) ids[i] = tables.get(i).getId();
+        return new PartyState(party.getId(), party.getPartySize(), party.isVIP(), ids);
+    }
+}
@@ -0,0 +1,102 @@
+package restaurant;
+
+/**
+ * The queue of parties waiting for a table.
+ * VIP and non-VIP parties are kept in two intrusive FIFO lists linked through the parties themselves,
+ * so adding a party, removing any party and checking membership are all constant time.
+ * Walking it with {@link #first()} and {@link #next(Party)} visits every VIP party before any non-VIP party,
+ * each in booking order.
+ * A version number counts the changes, so readers can tell whether a copy they made is still current.
+ */
+final class Waitlist {
+    private Party vipHead = null;
+    private Party vipTail = null;
+    private Party regularHead = null;
+    private Party regularTail = null;
+    private int size = 0;
+    private int version = 0;
+
+    /**
+     * Adds a party to the end of its priority class.
+     * @param party The party to add.
+     */
+    void add(final Party party) {
+        if (party.isVIP()) {
+            party.previous = vipTail;
+            if (vipTail == null) vipHead = party;
+            else vipTail.next = party;
+            vipTail = party;
+        } else {
+            party.previous = regularTail;
+            if (regularTail == null) regularHead = party;
+            else regularTail.next = party;
+            regularTail = party;
+        }
+        party.waitlist = this;
+        ++size;
+        ++version;
+    }
+
+    /**
+     * Removes a party from the waitlist.
+     * @param party The party to remove.
+     * @return Whether the party was waiting in this waitlist.
+     */
+    boolean remove(final Party party) {
+        if (!contains(party)) return false;
+
+        if (party.previous != null) party.previous.next = party.next;
+        else if (party.isVIP()) vipHead = party.next;
+        else regularHead = party.next;
+
+        if (party.next != null) party.next.previous = party.previous;
+        else if (party.isVIP()) vipTail = party.previous;
+        else regularTail = party.previous;
+
+        party.previous = null;
+        party.next = null;
+        party.waitlist = null;
+        --size;
+        ++version;
+        return true;
+    }
+
+    /**
+     * @param party The party to look for.
+     * @return Whether the party is waiting in this waitlist.
+     */
+    boolean contains(final Party party) {
+        return party != null && party.waitlist == this;
+    }
+
+    /**
+     * @return The party with the highest priority, or null if no party is waiting.
+     */
+    Party first() {
+        return vipHead != null ? vipHead : regularHead;
+    }
+
+    /**
+     * @param party A party in this waitlist.
+     * @return The party waiting directly behind the given party, or null if it is the last one.
+     */
+    Party next(final Party party) {
+        if (party.next != null) return party.next;
+        return party.isVIP() ? regularHead : null;
+    }
+
+    /**
+     * @return A number that changes whenever a party is added or removed.
+     */
+    int version() {
+        return version;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -6,6 +6,7 @@ public class EmptyTableException extends Exception {
     private final Table table;
 
     public EmptyTableException(Table table) {
+        super(null, null, false, false);
         this.table = table;
     }
 
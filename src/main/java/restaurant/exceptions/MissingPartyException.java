@@ -6,6 +6,7 @@ public class MissingPartyException extends Exception {
     private final Party party;
 
     public MissingPartyException(Party party) {
+        super(null, null, false, false);
         this.party = party;
     }
 
@@ -6,6 +6,7 @@ public class MissingTableException extends Exception {
     private final Table table;
 
     public MissingTableException(Table table) {
+        super(null, null, false, false);
         this.table = table;
     }
 
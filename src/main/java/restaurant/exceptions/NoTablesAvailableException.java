@@ -6,6 +6,7 @@ public class NoTablesAvailableException extends Exception {
     private final Party party;
 
     public NoTablesAvailableException(Party party) {
+        super(null, null, false, false);
         this.party = party;
     }
 
@@ -4,6 +4,7 @@ public class NonPositiveArgumentException extends Exception {
         private final int argument;
 
         public NonPositiveArgumentException(int argument) {
+                super(null, null, false, false);
                 this.argument = argument;
         }
 
@@ -8,6 +8,7 @@ public class OccupiedTableException extends Exception {
     private final Party party;
 
     public OccupiedTableException(Table table, Party party) {
+        super(null, null, false, false);
         this.table = table;
         this.party = party;
     }
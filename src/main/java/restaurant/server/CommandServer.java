@@ -0,0 +1,298 @@
+package restaurant.server;
+
+import restaurant.Party;
+import restaurant.Restaurant;
+import restaurant.RestaurantListener;
+import restaurant.Seating;
+import restaurant.Status;
+import restaurant.Table;
+import restaurant.exceptions.EmptyTableException;
+import restaurant.exceptions.NonPositiveArgumentException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A small line-based command server in front of a {@link Restaurant}, for host terminals on the same machine.
+ * <p>
+ * Every connection is served by its own thread, a virtual thread when the runtime has them,
+ * which parses commands and hands them to a single writer thread that owns the restaurant,
+ * so the restaurant is never touched by two threads and needs no locks.
+ * Tables and parties are named by their ids. Each command is one line, and each gets one line in reply:
+ * {@code OK} followed by the result, or {@code ERR} followed by the reason.
+ * <pre>
+ * TABLE capacity          OK tableId
+ * REMOVE_TABLE tableId    OK
+ * BOOK size [VIP]         OK partyId
+ * REMOVE partyId          OK
+ * SEAT                    OK partyId tableId[,tableId...]
+ * EMPTY tableId           OK partyId
+ * LIST TABLES             OK tableId:capacity:partyId ...   (partyId is - for an empty table)
+ * LIST PARTIES            OK partyId ...                    (waiting parties, in queue order)
+ * QUIT                    closes the connection
+ * </pre>
+ * Reasons are {@code BAD_REQUEST}, {@code EMPTY_TABLE}, {@code NON_POSITIVE}, or a {@link Status} name.
+ */
+public final class CommandServer implements Closeable {
+    private final Restaurant restaurant;
+    private final ServerSocket serverSocket;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> Threads.daemon(r, "restaurant-writer"));
+    private final ExecutorService connections = Threads.newThreadPerTaskExecutor("restaurant-connection");
+    private final Thread acceptor;
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+
+    // Confined to the writer thread.
+    private final Map<Integer, Table> tables = new HashMap<Integer, Table>();
+    private final Map<Integer, Party> parties = new HashMap<Integer, Party>();
+
+    /**
+     * Starts serving a restaurant on a loopback port. The restaurant must not be used by anything else afterwards.
+     * @param restaurant The restaurant to serve.
+     * @param port The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public CommandServer(final Restaurant restaurant, final int port) throws IOException {
+        this.restaurant = restaurant;
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+
+        submit(() -> {
+            for (Table table : restaurant.getEmptyTables()) tables.put(table.getId(), table);
+            for (Table table : restaurant.getFilledTables()) {
+                tables.put(table.getId(), table);
+                parties.put(table.getParty().getId(), table.getParty());
+            }
+            for (Party party : restaurant.getUnseatedParties()) parties.put(party.getId(), party);
+            restaurant.addListener(new Index());
+            return null;
+        });
+        acceptor = Threads.daemon(this::accept, "restaurant-acceptor");
+        acceptor.start();
+    }
+
+    /**
+     * @return The port the server listens on.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections, closes the open ones and stops the writer.
+     * Closing a connection's socket is what wakes its handler from a blocking read; clients see the end of the stream.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        try {
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Socket socket : openSockets) closeQuietly(socket);
+        connections.shutdownNow();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                openSockets.add(socket);
+                try {
+                    socket.setTcpNoDelay(true);
+                    connections.execute(() -> serve(socket));
+                } catch (IOException | RejectedExecutionException e) {
+                    openSockets.remove(socket);
+                    closeQuietly(socket);
+                }
+            } catch (IOException e) {
+                // The server socket was closed.
+                return;
+            }
+        }
+    }
+
+    private static void closeQuietly(final Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Nothing more can be done for this connection.
+        }
+    }
+
+    private void serve(final Socket socket) {
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                final String[] words = line.trim().split("\\s+");
+                if (words[0].equalsIgnoreCase("QUIT")) return;
+                out.write(submit(() -> execute(words)));
+                out.write('\n');
+                // Only flush once every pipelined command has been answered.
+                if (!in.ready()) out.flush();
+            }
+        } catch (IOException e) {
+            // The client went away or the server is closing.
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+    private String submit(final Command command) throws IOException {
+        try {
+            final Future<String> reply = writer.submit(command::run);
+            return reply.get();
+        } catch (RejectedExecutionException e) {
+            throw new IOException("Server is closing", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+
+    /**
+     * Runs one command on the writer thread.
+     */
+    private String execute(final String[] words) {
+        try {
+            switch (words[0].toUpperCase()) {
+                case "TABLE":
+                    return ok(restaurant.addTable(integer(words, 1)).getId());
+                case "REMOVE_TABLE":
+                    return status(restaurant.tryRemoveTable(tables.get(integer(words, 1))));
+                case "BOOK":
+                    final boolean vip = words.length > 2 && words[2].equalsIgnoreCase("VIP");
+                    return ok(restaurant.bookParty(integer(words, 1), vip).getId());
+                case "REMOVE":
+                    return status(restaurant.tryRemoveParty(parties.get(integer(words, 1))));
+                case "SEAT":
+                    return seat();
+                case "EMPTY":
+                    final Table table = tables.get(integer(words, 1));
+                    if (table == null) return "ERR " + Status.MISSING_TABLE;
+                    return ok(restaurant.emptyTable(table).getId());
+                case "LIST":
+                    if (words.length == 2 && words[1].equalsIgnoreCase("TABLES")) return listTables();
+                    if (words.length == 2 && words[1].equalsIgnoreCase("PARTIES")) return listParties();
+                    return "ERR BAD_REQUEST";
+                default:
+                    return "ERR BAD_REQUEST";
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return "ERR BAD_REQUEST";
+        } catch (NonPositiveArgumentException e) {
+            return "ERR NON_POSITIVE";
+        } catch (EmptyTableException e) {
+            return "ERR EMPTY_TABLE";
+        }
+    }
+
+    private String seat() throws NonPositiveArgumentException {
+        final List<Seating> seatings = restaurant.seatUpTo(1);
+        if (seatings.isEmpty()) {
+            return "ERR " + (restaurant.waitingCount() == 0 ? Status.NO_PARTIES_WAITING : Status.NO_TABLES_AVAILABLE);
+        }
+        final Seating seating = seatings.get(0);
+        final StringBuilder reply = new StringBuilder("OK ").append(seating.getParty().getId()).append(' ');
+        for (int i = 0; i < seating.getTables().size(); ++i) {
+            if (i > 0) reply.append(',');
+            reply.append(seating.getTables().get(i).getId());
+        }
+        return reply.toString();
+    }
+
+    private String listTables() {
+        final StringBuilder reply = new StringBuilder("OK");
+        for (Table table : restaurant.getEmptyTables()) {
+            reply.append(' ').append(table.getId()).append(':').append(table.getTableCapacity()).append(":-");
+        }
+        for (Table table : restaurant.getFilledTables()) {
+            reply.append(' ').append(table.getId()).append(':').append(table.getTableCapacity())
+                    .append(':').append(table.getParty().getId());
+        }
+        return reply.toString();
+    }
+
+    private String listParties() {
+        final StringBuilder reply = new StringBuilder("OK");
+        for (Party party : restaurant.getSharedUnseatedParties()) reply.append(' ').append(party.getId());
+        return reply.toString();
+    }
+
+    private static int integer(final String[] words, final int index) {
+        return Integer.parseInt(words[index]);
+    }
+
+    private static String ok(final int id) {
+        return "OK " + id;
+    }
+
+    private static String status(final Status status) {
+        return status == Status.OK ? "OK" : "ERR " + status;
+    }
+
+    private interface Command {
+        String run() throws Exception;
+    }
+
+    /**
+     * Keeps the id lookups in step with the restaurant, on the writer thread.
+     */
+    private final class Index implements RestaurantListener {
+        @Override
+        public void tableAdded(final Table table) {
+            tables.put(table.getId(), table);
+        }
+
+        @Override
+        public void tableRemoved(final Table table) {
+            tables.remove(table.getId());
+        }
+
+        @Override
+        public void partyBooked(final Party party) {
+            parties.put(party.getId(), party);
+        }
+
+        @Override
+        public void partyRemoved(final Party party) {
+            parties.remove(party.getId());
+        }
+
+        @Override
+        public void tableEmptied(final Table table, final Party party) {
+            if (party.getSeatedTable() == table) parties.remove(party.getId());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package restaurant.server;
+
+import restaurant.LatencyHistogram;
+import restaurant.Restaurant;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A load generator for {@link CommandServer}: several host terminals that each book a party, seat the next party
+ * and empty the table it got, over and over, timing every request.
+ * <p>
+ * Run it against a server with {@code java restaurant.server.LoadGenerator port [connections] [seconds]},
+ * or with no arguments to start a local server with 200 tables and measure that.
+ * It prints requests per second and latency percentiles.
+ */
+public final class LoadGenerator {
+    private final int port;
+    private final int connections;
+    private final long durationNanos;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * @param port The port of the server on the loopback address.
+     * @param connections The number of connections to drive it with.
+     * @param durationMillis How long to run for.
+     */
+    public LoadGenerator(final int port, final int connections, final long durationMillis) {
+        this.port = port;
+        this.connections = connections;
+        this.durationNanos = TimeUnit.MILLISECONDS.toNanos(durationMillis);
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final int connections = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        final long seconds = args.length > 2 ? Long.parseLong(args[2]) : 10;
+        if (args.length > 0) {
+            System.out.println(new LoadGenerator(Integer.parseInt(args[0]), connections, seconds * 1000).run());
+            return;
+        }
+
+        final Restaurant restaurant = new Restaurant();
+        for (int i = 0; i < 200; ++i) restaurant.addTable(2 + i % 7);
+        try (CommandServer server = new CommandServer(restaurant, 0)) {
+            System.out.println(new LoadGenerator(server.getPort(), connections, seconds * 1000).run());
+        }
+    }
+
+    /**
+     * Drives the server until the duration has passed.
+     * @return The throughput and latency of the run.
+     */
+    public Result run() throws Exception {
+        final ExecutorService clients = Threads.newThreadPerTaskExecutor("load-generator");
+        final long start = System.nanoTime();
+        final List<Future<?>> running = new ArrayList<Future<?>>();
+        for (int i = 0; i < connections; ++i) {
+            final long seed = i;
+            running.add(clients.submit(() -> {
+                drive(new Random(seed), start + durationNanos);
+                return null;
+            }));
+        }
+        for (Future<?> client : running) client.get();
+        clients.shutdown();
+        return new Result(latency.snapshot(), errors.sum(), System.nanoTime() - start);
+    }
+
+    private void drive(final Random random, final long deadline) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            while (System.nanoTime() < deadline) {
+                request(in, out, "BOOK " + (1 + random.nextInt(6)) + (random.nextInt(10) == 0 ? " VIP" : ""));
+                final String seated = request(in, out, "SEAT");
+                if (seated.startsWith("OK ")) {
+                    final String tables = seated.substring(seated.lastIndexOf(' ') + 1);
+                    final int comma = tables.indexOf(',');
+                    request(in, out, "EMPTY " + (comma < 0 ? tables : tables.substring(0, comma)));
+                }
+            }
+            out.write("QUIT\n");
+            out.flush();
+        }
+    }
+
+    private String request(final BufferedReader in, final Writer out, final String command) throws IOException {
+        final long start = System.nanoTime();
+        out.write(command);
+        out.write('\n');
+        out.flush();
+        final String reply = in.readLine();
+        latency.record(System.nanoTime() - start);
+        if (reply == null) throw new IOException("Server closed the connection");
+        if (reply.startsWith("ERR ") && !command.equals("SEAT")) errors.increment();
+        return reply;
+    }
+
+    /**
+     * The outcome of a run.
+     */
+    public static final class Result {
+        private final LatencyHistogram.Snapshot latency;
+        private final long errors;
+        private final long elapsedNanos;
+
+        private Result(LatencyHistogram.Snapshot latency, long errors, long elapsedNanos) {
+            this.latency = latency;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * @return The round-trip time of every request, in nanoseconds.
+         */
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+
+        /**
+         * @return The number of requests other than {@code SEAT} that were refused.
+         */
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getRequestsPerSecond() {
+            return latency.getCount() * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests, %.0f req/s, p50 %.1f us, p99 %.1f us, max %.1f us, %d errors",
+                    latency.getCount(), getRequestsPerSecond(), latency.getValueAtQuantile(0.5) / 1e3,
+                    latency.getValueAtQuantile(0.99) / 1e3, latency.getMax() / 1e3, errors);
+        }
+    }
+}
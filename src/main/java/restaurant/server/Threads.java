@@ -0,0 +1,32 @@
+package restaurant.server;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Thread helpers for the server, which runs on any Java 8 or later runtime.
+ */
+final class Threads {
+    private Threads() {
+    }
+
+    /**
+     * Creates an executor that starts a new thread for every task: a virtual thread when the runtime has them,
+     * which makes an idle connection cost a few hundred bytes instead of a platform thread,
+     * and otherwise a daemon platform thread.
+     * @param name The name of the threads when they are platform threads.
+     */
+    static ExecutorService newThreadPerTaskExecutor(final String name) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> daemon(runnable, name));
+        }
+    }
+
+    static Thread daemon(final Runnable runnable, final String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,81 @@
+package restaurant.sim;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of events, each a time and an int payload, kept in primitive arrays so that
+ * scheduling and dispatching events allocates nothing once the queue has grown to its working size.
+ * Events at the same time come out in order of their payloads, which keeps replays deterministic.
+ */
+final class EventQueue {
+    private long[] times = new long[64];
+    private int[] payloads = new int[64];
+    private int size = 0;
+
+    void add(final long time, final int payload) {
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            payloads = Arrays.copyOf(payloads, size * 2);
+        }
+        int child = size++;
+        while (child > 0) {
+            final int parent = (child - 1) >>> 1;
+            if (!before(time, payload, times[parent], payloads[parent])) break;
+            times[child] = times[parent];
+            payloads[child] = payloads[parent];
+            child = parent;
+        }
+        times[child] = time;
+        payloads[child] = payload;
+    }
+
+    /**
+     * @return The time of the earliest event. The queue must not be empty.
+     */
+    long peekTime() {
+        return times[0];
+    }
+
+    /**
+     * @return The payload of the earliest event. The queue must not be empty.
+     */
+    int peekPayload() {
+        return payloads[0];
+    }
+
+    /**
+     * Removes the earliest event. The queue must not be empty.
+     */
+    void remove() {
+        final long time = times[--size];
+        final int payload = payloads[size];
+        int parent = 0;
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= size) break;
+            if (child + 1 < size && before(times[child + 1], payloads[child + 1], times[child], payloads[child])) ++child;
+            if (!before(times[child], payloads[child], time, payload)) break;
+            times[parent] = times[child];
+            payloads[parent] = payloads[child];
+            parent = child;
+        }
+        times[parent] = time;
+        payloads[parent] = payload;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    private static boolean before(final long time, final int payload, final long otherTime, final int otherPayload) {
+        return time < otherTime || (time == otherTime && payload < otherPayload);
+    }
+}
@@ -0,0 +1,46 @@
+package restaurant.sim;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Receives every call a {@link Simulation} makes on its restaurant, as it makes it.
+ */
+@FunctionalInterface
+public interface EventSink {
+    /**
+     * The restaurant calls a simulation makes.
+     */
+    enum Kind {
+        BOOK, SEAT, EMPTY
+    }
+
+    /**
+     * @param time The simulated time of the call.
+     * @param kind The call.
+     * @param partyId The party booked, seated or leaving, or 0 for a seating attempt that seated nobody.
+     * @param latencyNanos How long the call took, in wall-clock nanoseconds.
+     * @param queueDepth The number of parties waiting after the call.
+     */
+    void record(long time, Kind kind, int partyId, long latencyNanos, int queueDepth) throws IOException;
+
+    /**
+     * Creates a sink that writes one comma-separated line per call, after a header line.
+     * The writer should be buffered; it is not flushed or closed by the sink.
+     */
+    static EventSink csv(final Writer out) throws IOException {
+        out.write("time,kind,party,latency_nanos,queue_depth\n");
+        return (time, kind, partyId, latencyNanos, queueDepth) -> {
+            out.write(Long.toString(time));
+            out.write(',');
+            out.write(kind.name());
+            out.write(',');
+            out.write(Integer.toString(partyId));
+            out.write(',');
+            out.write(Long.toString(latencyNanos));
+            out.write(',');
+            out.write(Integer.toString(queueDepth));
+            out.write('\n');
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package restaurant.sim;
+
+import restaurant.exceptions.NonPositiveArgumentException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A candidate mix of tables, given by their capacities.
+ */
+public final class FloorPlan {
+    private final int[] capacities;
+    private final int seats;
+
+    /**
+     * If any capacity is less than or equal to zero, this constructor throws an instance of
+     * {@link NonPositiveArgumentException} with that capacity filled in.
+     * @param capacities The capacity of every table.
+     * @throws NonPositiveArgumentException
+     */
+    public FloorPlan(final int... capacities) throws NonPositiveArgumentException {
+        int seats = 0;
+        for (int capacity : capacities) {
+            if (capacity <= 0) throw new NonPositiveArgumentException(capacity);
+            seats += capacity;
+        }
+        this.capacities = capacities.clone();
+        Arrays.sort(this.capacities);
+        this.seats = seats;
+    }
+
+    /**
+     * Lists every mix of the given table capacities that has exactly the given number of seats,
+     * for searching the layouts a dining room can hold.
+     * If the seat count or any capacity is less than or equal to zero,
+     * this method throws an instance of {@link NonPositiveArgumentException} with that value filled in.
+     * @param seats The number of seats.
+     * @param capacities The table capacities to choose from.
+     * @return The floor plans, each listing its tables from smallest to largest.
+     * @throws NonPositiveArgumentException
+     */
+    public static List<FloorPlan> withSeats(final int seats, final int... capacities) throws NonPositiveArgumentException {
+        if (seats <= 0) throw new NonPositiveArgumentException(seats);
+        final int[] choices = capacities.clone();
+        for (int capacity : choices) if (capacity <= 0) throw new NonPositiveArgumentException(capacity);
+        Arrays.sort(choices);
+        final List<FloorPlan> plans = new ArrayList<FloorPlan>();
+        enumerate(choices, 0, seats, new int[seats], 0, plans);
+        return plans;
+    }
+
+    private static void enumerate(final int[] choices, final int from, final int remaining,
+                                  final int[] tables, final int count, final List<FloorPlan> plans)
+            throws NonPositiveArgumentException {
+        if (remaining == 0) {
+            plans.add(new FloorPlan(Arrays.copyOf(tables, count)));
+            return;
+        }
+        for (int i = from; i < choices.length && choices[i] <= remaining; ++i) {
+            // Skip repeated choices, so each mix is listed once.
+            if (i > from && choices[i] == choices[i - 1]) continue;
+            tables[count] = choices[i];
+            enumerate(choices, i, remaining - choices[i], tables, count + 1, plans);
+        }
+    }
+
+    /**
+     * @return The capacity of every table, from smallest to largest.
+     */
+    public int[] getCapacities() {
+        return capacities.clone();
+    }
+
+    public int getTableCount() {
+        return capacities.length;
+    }
+
+    public int getSeatCount() {
+        return seats;
+    }
+
+    /**
+     * @return The capacity of the largest table, or 0 if there are no tables.
+     */
+    public int getLargestCapacity() {
+        return capacities.length == 0 ? 0 : capacities[capacities.length - 1];
+    }
+
+    int capacityAt(final int index) {
+        return capacities[index];
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof FloorPlan && Arrays.equals(capacities, ((FloorPlan) o).capacities);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(capacities);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(capacities);
+    }
+}
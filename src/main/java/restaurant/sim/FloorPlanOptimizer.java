@@ -0,0 +1,120 @@
+package restaurant.sim;
+
+import restaurant.SeatingPolicy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Chooses a mix of tables for the parties that actually show up, by replaying a recorded {@link Trace}
+ * against candidate {@link FloorPlan}s through the real seating logic.
+ * <p>
+ * Every candidate is replayed on its own restaurant and simulated clock, so candidates share nothing
+ * but the read-only trace and are split across a fork-join pool.
+ * <pre>
+ * FloorPlanOptimizer optimizer = new FloorPlanOptimizer(recorder.toTrace());
+ * ReplayResult best = optimizer.best(FloorPlan.withSeats(80, 2, 4, 6, 8), FloorPlanOptimizer.SHORTEST_WAIT);
+ * </pre>
+ */
+public final class FloorPlanOptimizer {
+    /**
+     * Prefers plans that turn fewer parties away, then shorter average waits, then higher utilization.
+     */
+    public static final Comparator<ReplayResult> SHORTEST_WAIT = Comparator
+            .comparingInt(ReplayResult::getTurnedAwayParties)
+            .thenComparingDouble(ReplayResult::getAverageWait)
+            .thenComparing(Comparator.comparingDouble(ReplayResult::getUtilization).reversed());
+
+    private final Trace trace;
+    private final ForkJoinPool pool;
+    private Supplier<? extends SeatingPolicy> policy = null;
+
+    /**
+     * Creates an optimizer that runs on the common fork-join pool.
+     * @param trace The parties to replay.
+     */
+    public FloorPlanOptimizer(final Trace trace) {
+        this(trace, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param trace The parties to replay.
+     * @param pool The pool to replay candidates on.
+     */
+    public FloorPlanOptimizer(final Trace trace, final ForkJoinPool pool) {
+        this.trace = trace;
+        this.pool = pool;
+    }
+
+    /**
+     * Sets the seating policy to replay with. Each replay gets its own policy from the supplier.
+     * @param policy The supplier of policies, or null for the restaurant's default policy.
+     */
+    public void setSeatingPolicy(final Supplier<? extends SeatingPolicy> policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Replays the trace against a single floor plan on the calling thread.
+     */
+    public ReplayResult evaluate(final FloorPlan plan) {
+        return new Replay(trace, plan, policy).run();
+    }
+
+    /**
+     * Replays the trace against every floor plan in parallel.
+     * @return The results, in the order of the plans.
+     */
+    public List<ReplayResult> evaluateAll(final List<FloorPlan> plans) {
+        final FloorPlan[] candidates = plans.toArray(new FloorPlan[0]);
+        final ReplayResult[] results = new ReplayResult[candidates.length];
+        pool.invoke(new Candidates(candidates, results, 0, candidates.length));
+        return new ArrayList<ReplayResult>(Arrays.asList(results));
+    }
+
+    /**
+     * Replays the trace against every floor plan in parallel and returns the best.
+     * @param plans The candidates.
+     * @param order Orders results from best to worst, such as {@link #SHORTEST_WAIT}.
+     * @return The best result, or null if there are no plans.
+     */
+    public ReplayResult best(final List<FloorPlan> plans, final Comparator<? super ReplayResult> order) {
+        ReplayResult best = null;
+        for (ReplayResult result : evaluateAll(plans)) {
+            if (best == null || order.compare(result, best) < 0) best = result;
+        }
+        return best;
+    }
+
+    /**
+     * Splits a range of candidates in halves down to single replays, which are long enough to be worth a task each.
+     */
+    private final class Candidates extends RecursiveAction {
+        private final FloorPlan[] plans;
+        private final ReplayResult[] results;
+        private final int from;
+        private final int to;
+
+        private Candidates(final FloorPlan[] plans, final ReplayResult[] results, final int from, final int to) {
+            this.plans = plans;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) results[from] = evaluate(plans[from]);
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new Candidates(plans, results, from, middle), new Candidates(plans, results, middle, to));
+        }
+    }
+}
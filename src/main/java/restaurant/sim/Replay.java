@@ -0,0 +1,94 @@
+package restaurant.sim;
+
+import restaurant.Party;
+import restaurant.Restaurant;
+import restaurant.RestaurantListener;
+import restaurant.Seating;
+import restaurant.SeatingPolicy;
+import restaurant.exceptions.EmptyTableException;
+import restaurant.exceptions.NonPositiveArgumentException;
+
+import java.util.function.Supplier;
+
+/**
+ * Replays a trace against one floor plan through a real {@link Restaurant} in auto-seat mode,
+ * on a simulated clock that jumps from event to event.
+ * Each party is booked when it arrives and its table is emptied its dining time after it was seated,
+ * so the seating policy alone decides who waits and for how long.
+ */
+final class Replay implements RestaurantListener {
+    private final Trace trace;
+    private final FloorPlan plan;
+    private final Restaurant restaurant;
+    private final EventQueue departures = new EventQueue();
+    // Indexed by party id, which the restaurant hands out from 1 in booking order.
+    private final int[] traceIndex;
+    private final Party[] parties;
+    private long now = 0;
+    private long totalWait = 0;
+    private double seatTime = 0;
+    private int seated = 0;
+
+    Replay(final Trace trace, final FloorPlan plan, final Supplier<? extends SeatingPolicy> policy) {
+        this.trace = trace;
+        this.plan = plan;
+        this.restaurant = new Restaurant(() -> now);
+        this.traceIndex = new int[trace.size() + 1];
+        this.parties = new Party[trace.size() + 1];
+        if (policy != null) restaurant.setSeatingPolicy(policy.get());
+        try {
+            for (int i = 0; i < plan.getTableCount(); ++i) restaurant.addTable(plan.capacityAt(i));
+        } catch (NonPositiveArgumentException e) {
+            throw new AssertionError(e);
+        }
+        restaurant.addListener(this);
+        restaurant.setAutoSeat(true);
+    }
+
+    ReplayResult run() {
+        final int largest = plan.getLargestCapacity();
+        int booked = 0;
+        int turnedAway = 0;
+        try {
+            for (int i = 0; i < trace.size(); ++i) {
+                final long arrival = trace.getArrival(i);
+                departUntil(arrival);
+                now = arrival;
+                if (trace.getPartySize(i) > largest) {
+                    ++turnedAway;
+                    continue;
+                }
+                traceIndex[++booked] = i;
+                restaurant.bookParty(trace.getPartySize(i), trace.isVIP(i));
+            }
+            departUntil(Long.MAX_VALUE);
+        } catch (NonPositiveArgumentException | EmptyTableException e) {
+            throw new AssertionError(e);
+        }
+
+        final long span = trace.size() == 0 ? 0 : now - trace.getArrival(0);
+        final double utilization = span == 0 || plan.getSeatCount() == 0 ? 0 : seatTime / ((double) span * plan.getSeatCount());
+        return new ReplayResult(plan, seated, turnedAway, seated == 0 ? 0 : (double) totalWait / seated, utilization);
+    }
+
+    private void departUntil(final long time) throws EmptyTableException {
+        while (!departures.isEmpty() && departures.peekTime() <= time) {
+            now = departures.peekTime();
+            final Party party = parties[departures.peekPayload()];
+            departures.remove();
+            restaurant.emptyTable(party.getSeatedTable());
+        }
+    }
+
+    @Override
+    public void partySeated(final Seating seating) {
+        final Party party = seating.getParty();
+        final int index = traceIndex[party.getId()];
+        final long diningTime = trace.getDiningTime(index);
+        parties[party.getId()] = party;
+        totalWait += now - trace.getArrival(index);
+        seatTime += (double) party.getPartySize() * diningTime;
+        ++seated;
+        departures.add(now + diningTime, party.getId());
+    }
+}
@@ -0,0 +1,56 @@
+package restaurant.sim;
+
+/**
+ * How a floor plan served a trace.
+ */
+public final class ReplayResult {
+    private final FloorPlan plan;
+    private final int seatedParties;
+    private final int turnedAwayParties;
+    private final double averageWait;
+    private final double utilization;
+
+    ReplayResult(final FloorPlan plan, final int seatedParties, final int turnedAwayParties,
+                 final double averageWait, final double utilization) {
+        this.plan = plan;
+        this.seatedParties = seatedParties;
+        this.turnedAwayParties = turnedAwayParties;
+        this.averageWait = averageWait;
+        this.utilization = utilization;
+    }
+
+    public FloorPlan getPlan() {
+        return plan;
+    }
+
+    public int getSeatedParties() {
+        return seatedParties;
+    }
+
+    /**
+     * @return The number of parties too large for any table, which the host would have had to turn away.
+     */
+    public int getTurnedAwayParties() {
+        return turnedAwayParties;
+    }
+
+    /**
+     * @return The mean time seated parties waited between booking and being seated, in the unit of the trace.
+     */
+    public double getAverageWait() {
+        return averageWait;
+    }
+
+    /**
+     * @return The fraction of seat time, over the span of the trace, that guests actually sat in.
+     */
+    public double getUtilization() {
+        return utilization;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d seated, %d turned away, average wait %.1f, utilization %.1f%%",
+                plan, seatedParties, turnedAwayParties, averageWait, utilization * 100);
+    }
+}
@@ -0,0 +1,334 @@
+package restaurant.sim;
+
+import restaurant.LatencyHistogram;
+import restaurant.Party;
+import restaurant.Restaurant;
+import restaurant.RestaurantListener;
+import restaurant.Seating;
+import restaurant.SeatingPolicy;
+import restaurant.Status;
+import restaurant.exceptions.EmptyTableException;
+import restaurant.exceptions.NonPositiveArgumentException;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A deterministic discrete-event simulation of a service: parties arrive at random,
+ * are booked, seated whenever a table fits, dine, and leave.
+ * <p>
+ * Every random draw comes from one seeded {@link SplittableRandom} in a fixed order,
+ * and events are dispatched from a time-ordered primitive heap, so a configuration always produces
+ * the same calls on the restaurant and, for a given seating engine, the same decisions.
+ * After every arrival or departure the simulation seats parties until an attempt seats nobody,
+ * timing each call and reporting it to an optional {@link EventSink}.
+ * <p>
+ * Run it with {@code java restaurant.sim.Simulation [tables] [parties] [seed]} to print the result of
+ * a busy service that keeps 95% of the tables occupied.
+ */
+public final class Simulation {
+    // Departures are keyed by party id, which starts at 1, so arrivals sort after departures at the same time.
+    private static final int ARRIVAL = Integer.MAX_VALUE;
+
+    private final long seed;
+    private final FloorPlan plan;
+    private final long meanInterarrival;
+    private final double[] sizeWeights;
+    private final double vipProbability;
+    private final long meanDiningTime;
+    private final int parties;
+    private final Supplier<? extends SeatingPolicy> policy;
+    private final EventSink sink;
+
+    private Simulation(final Builder builder) {
+        this.seed = builder.seed;
+        this.plan = builder.plan;
+        this.meanInterarrival = builder.meanInterarrival;
+        this.sizeWeights = builder.sizeWeights;
+        this.vipProbability = builder.vipProbability;
+        this.meanDiningTime = builder.meanDiningTime;
+        this.parties = builder.parties;
+        this.policy = builder.policy;
+        this.sink = builder.sink;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final int tables = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        final int parties = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+        final long seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+        final int[] capacities = new int[tables];
+        for (int i = 0; i < tables; ++i) capacities[i] = 2 + i % 7;
+        final FloorPlan plan = new FloorPlan(capacities);
+        final long meanDiningTime = TimeUnit.HOURS.toNanos(1);
+        System.out.println(new Builder().seed(seed).floorPlan(plan).parties(parties).meanDiningTime(meanDiningTime)
+                .meanInterarrival((long) (meanDiningTime / (0.95 * tables))).build().run());
+    }
+
+    /**
+     * Runs the simulation on a new restaurant until every party has left.
+     * @return The latencies, queue depths and decisions of the run.
+     * @throws IOException If the event sink fails.
+     */
+    public SimulationResult run() throws IOException {
+        return new Run().run();
+    }
+
+    /**
+     * The state of one run.
+     */
+    private final class Run implements RestaurantListener {
+        private long now = 0;
+        private final SplittableRandom random = new SplittableRandom(seed);
+        private final Restaurant restaurant = new Restaurant(() -> now);
+        private final EventQueue events = new EventQueue();
+        private final LatencyHistogram bookLatency = new LatencyHistogram();
+        private final LatencyHistogram seatLatency = new LatencyHistogram();
+        private final LatencyHistogram emptyLatency = new LatencyHistogram();
+        // Indexed by party id.
+        private final Party[] booked = new Party[parties + 1];
+        private final long[] bookedAt = new long[parties + 1];
+        private final long[] diningTimes = new long[parties + 1];
+        private long calls = 0;
+        private long queueDepthSum = 0;
+        private int maxQueueDepth = 0;
+        private int seatedId = 0;
+        private int seated = 0;
+        private double totalWait = 0;
+        private long digest = 0xcbf29ce484222325L;
+
+        private SimulationResult run() throws IOException {
+            if (policy != null) restaurant.setSeatingPolicy(policy.get());
+            try {
+                for (int i = 0; i < plan.getTableCount(); ++i) restaurant.addTable(plan.capacityAt(i));
+            } catch (NonPositiveArgumentException e) {
+                throw new AssertionError(e);
+            }
+            restaurant.addListener(this);
+
+            final long start = System.nanoTime();
+            final int largest = plan.getLargestCapacity();
+            int arrived = 0;
+            int turnedAway = 0;
+            if (parties > 0) events.add(exponential(meanInterarrival), ARRIVAL);
+            while (!events.isEmpty()) {
+                now = events.peekTime();
+                final int payload = events.peekPayload();
+                events.remove();
+                if (payload == ARRIVAL) {
+                    final int size = partySize();
+                    final boolean vip = random.nextDouble() < vipProbability;
+                    final long diningTime = Math.max(1, exponential(meanDiningTime));
+                    if (++arrived < parties) events.add(now + exponential(meanInterarrival), ARRIVAL);
+                    if (size > largest) {
+                        ++turnedAway;
+                        continue;
+                    }
+                    book(size, vip, diningTime);
+                } else {
+                    empty(payload);
+                }
+                if (restaurant.waitingCount() > 0) seatAll();
+            }
+            final long elapsed = System.nanoTime() - start;
+
+            return new SimulationResult(calls, seated, turnedAway, seated == 0 ? 0 : totalWait / seated,
+                    maxQueueDepth, calls == 0 ? 0 : (double) queueDepthSum / calls,
+                    bookLatency.snapshot(), seatLatency.snapshot(), emptyLatency.snapshot(),
+                    digest, now, elapsed);
+        }
+
+        private void book(final int size, final boolean vip, final long diningTime) throws IOException {
+            final long start = System.nanoTime();
+            final Party party;
+            try {
+                party = restaurant.bookParty(size, vip);
+            } catch (NonPositiveArgumentException e) {
+                throw new AssertionError(e);
+            }
+            final long latency = System.nanoTime() - start;
+            bookLatency.record(latency);
+            booked[party.getId()] = party;
+            bookedAt[party.getId()] = now;
+            diningTimes[party.getId()] = diningTime;
+            record(EventSink.Kind.BOOK, party.getId(), latency);
+        }
+
+        private void seatAll() throws IOException {
+            Status status;
+            do {
+                seatedId = 0;
+                final long start = System.nanoTime();
+                status = restaurant.trySeatParty();
+                final long latency = System.nanoTime() - start;
+                seatLatency.record(latency);
+                record(EventSink.Kind.SEAT, seatedId, latency);
+            } while (status == Status.OK);
+        }
+
+        private void empty(final int partyId) throws IOException {
+            final Party party = booked[partyId];
+            booked[partyId] = null;
+            final long start = System.nanoTime();
+            try {
+                restaurant.emptyTable(party.getSeatedTable());
+            } catch (EmptyTableException e) {
+                throw new AssertionError(e);
+            }
+            final long latency = System.nanoTime() - start;
+            emptyLatency.record(latency);
+            record(EventSink.Kind.EMPTY, partyId, latency);
+        }
+
+        private void record(final EventSink.Kind kind, final int partyId, final long latency) throws IOException {
+            final int queueDepth = restaurant.waitingCount();
+            ++calls;
+            queueDepthSum += queueDepth;
+            if (queueDepth > maxQueueDepth) maxQueueDepth = queueDepth;
+            if (sink != null) sink.record(now, kind, partyId, latency, queueDepth);
+        }
+
+        @Override
+        public void partySeated(final Seating seating) {
+            final int id = seating.getParty().getId();
+            seatedId = id;
+            ++seated;
+            totalWait += now - bookedAt[id];
+            events.add(now + diningTimes[id], id);
+
+            digest = mix(digest, now);
+            digest = mix(digest, id);
+            for (int i = 0; i < seating.getTables().size(); ++i) digest = mix(digest, seating.getTables().get(i).getId());
+        }
+
+        private int partySize() {
+            double draw = random.nextDouble();
+            for (int i = 0; i < sizeWeights.length - 1; ++i) {
+                draw -= sizeWeights[i];
+                if (draw < 0) return i + 1;
+            }
+            return sizeWeights.length;
+        }
+
+        private long exponential(final long mean) {
+            return (long) (-Math.log(1 - random.nextDouble()) * mean);
+        }
+    }
+
+    /**
+     * FNV-1a over whole longs rather than bytes: cheap, and order-sensitive, which is what a decision log needs.
+     */
+    private static long mix(final long hash, final long value) {
+        return (hash ^ value) * 0x100000001b3L;
+    }
+
+    /**
+     * Configures a simulation. Only the floor plan is required; times are in nanoseconds by convention.
+     */
+    public static final class Builder {
+        private long seed = 0;
+        private FloorPlan plan = null;
+        private long meanInterarrival = TimeUnit.MINUTES.toNanos(1);
+        private double[] sizeWeights = {0.05, 0.45, 0.15, 0.2, 0.05, 0.1};
+        private double vipProbability = 0.05;
+        private long meanDiningTime = TimeUnit.HOURS.toNanos(1);
+        private int parties = 100000;
+        private Supplier<? extends SeatingPolicy> policy = null;
+        private EventSink sink = null;
+
+        public Builder seed(final long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder floorPlan(final FloorPlan plan) {
+            this.plan = plan;
+            return this;
+        }
+
+        /**
+         * Sets the mean time between arrivals, which are a Poisson process, one minute by default.
+         * If the time is less than or equal to zero, this method throws an instance of {@link IllegalArgumentException}.
+         */
+        public Builder meanInterarrival(final long meanInterarrival) {
+            if (meanInterarrival <= 0) throw new IllegalArgumentException("mean interarrival must be positive: " + meanInterarrival);
+            this.meanInterarrival = meanInterarrival;
+            return this;
+        }
+
+        /**
+         * Sets the relative frequency of each party size, the first weight being for parties of one.
+         * If no weight is given, or any is negative, or they add up to zero,
+         * this method throws an instance of {@link IllegalArgumentException}.
+         */
+        public Builder partySizes(final double... weights) {
+            double total = 0;
+            for (double weight : weights) {
+                if (weight < 0) throw new IllegalArgumentException("weights must not be negative: " + weight);
+                total += weight;
+            }
+            if (total <= 0) throw new IllegalArgumentException("weights must add up to more than zero");
+            sizeWeights = new double[weights.length];
+            for (int i = 0; i < weights.length; ++i) sizeWeights[i] = weights[i] / total;
+            return this;
+        }
+
+        /**
+         * Sets the chance that a party is a VIP, 5% by default.
+         * If the chance is not between 0 and 1, this method throws an instance of {@link IllegalArgumentException}.
+         */
+        public Builder vipProbability(final double vipProbability) {
+            if (!(vipProbability >= 0 && vipProbability <= 1)) {
+                throw new IllegalArgumentException("probability must be between 0 and 1: " + vipProbability);
+            }
+            this.vipProbability = vipProbability;
+            return this;
+        }
+
+        /**
+         * Sets the mean time a party dines, which is exponentially distributed, one hour by default.
+         * If the time is less than or equal to zero, this method throws an instance of {@link IllegalArgumentException}.
+         */
+        public Builder meanDiningTime(final long meanDiningTime) {
+            if (meanDiningTime <= 0) throw new IllegalArgumentException("mean dining time must be positive: " + meanDiningTime);
+            this.meanDiningTime = meanDiningTime;
+            return this;
+        }
+
+        /**
+         * Sets the number of parties that arrive, 100000 by default.
+         * If the number is negative, this method throws an instance of {@link IllegalArgumentException}.
+         */
+        public Builder parties(final int parties) {
+            if (parties < 0) throw new IllegalArgumentException("parties must not be negative: " + parties);
+            this.parties = parties;
+            return this;
+        }
+
+        /**
+         * @param policy The supplier of the seating policy, or null for the restaurant's default policy.
+         */
+        public Builder seatingPolicy(final Supplier<? extends SeatingPolicy> policy) {
+            this.policy = policy;
+            return this;
+        }
+
+        /**
+         * @param sink The sink to report every call to, or null.
+         */
+        public Builder eventSink(final EventSink sink) {
+            this.sink = sink;
+            return this;
+        }
+
+        /**
+         * If no floor plan was given, this method throws an instance of {@link IllegalStateException}.
+         */
+        public Simulation build() {
+            if (plan == null) throw new IllegalStateException("a floor plan is required");
+            return new Simulation(this);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package restaurant.sim;
+
+import restaurant.LatencyHistogram;
+
+/**
+ * The outcome of a {@link Simulation} run.
+ */
+public final class SimulationResult {
+    private final long events;
+    private final int seatedParties;
+    private final int turnedAwayParties;
+    private final double averageWait;
+    private final int maxQueueDepth;
+    private final double meanQueueDepth;
+    private final LatencyHistogram.Snapshot bookLatency;
+    private final LatencyHistogram.Snapshot seatLatency;
+    private final LatencyHistogram.Snapshot emptyLatency;
+    private final long decisionDigest;
+    private final long simulatedTime;
+    private final long elapsedNanos;
+
+    SimulationResult(final long events, final int seatedParties, final int turnedAwayParties, final double averageWait,
+                     final int maxQueueDepth, final double meanQueueDepth,
+                     final LatencyHistogram.Snapshot bookLatency, final LatencyHistogram.Snapshot seatLatency,
+                     final LatencyHistogram.Snapshot emptyLatency, final long decisionDigest,
+                     final long simulatedTime, final long elapsedNanos) {
+        this.events = events;
+        this.seatedParties = seatedParties;
+        this.turnedAwayParties = turnedAwayParties;
+        this.averageWait = averageWait;
+        this.maxQueueDepth = maxQueueDepth;
+        this.meanQueueDepth = meanQueueDepth;
+        this.bookLatency = bookLatency;
+        this.seatLatency = seatLatency;
+        this.emptyLatency = emptyLatency;
+        this.decisionDigest = decisionDigest;
+        this.simulatedTime = simulatedTime;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return The number of calls made on the restaurant.
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    public int getSeatedParties() {
+        return seatedParties;
+    }
+
+    /**
+     * @return The number of parties too large for any table, which were never booked.
+     */
+    public int getTurnedAwayParties() {
+        return turnedAwayParties;
+    }
+
+    /**
+     * @return The mean time seated parties waited, in simulated time.
+     */
+    public double getAverageWait() {
+        return averageWait;
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    /**
+     * @return The number of waiting parties averaged over every call.
+     */
+    public double getMeanQueueDepth() {
+        return meanQueueDepth;
+    }
+
+    public LatencyHistogram.Snapshot getBookLatency() {
+        return bookLatency;
+    }
+
+    /**
+     * @return The latency of every seating attempt, including those that seated nobody.
+     */
+    public LatencyHistogram.Snapshot getSeatLatency() {
+        return seatLatency;
+    }
+
+    public LatencyHistogram.Snapshot getEmptyLatency() {
+        return emptyLatency;
+    }
+
+    /**
+     * @return A hash of every seating made, in order: when, which party, and at which tables.
+     * Two runs with the same configuration seat parties identically exactly when their digests match,
+     * barring a hash collision, so a replacement seating engine can be checked against this one.
+     */
+    public long getDecisionDigest() {
+        return decisionDigest;
+    }
+
+    /**
+     * @return The simulated time of the last event.
+     */
+    public long getSimulatedTime() {
+        return simulatedTime;
+    }
+
+    /**
+     * @return The wall-clock time the run took, in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getEventsPerSecond() {
+        return elapsedNanos == 0 ? 0 : events * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d events, %.0f events/s, %d seated, %d turned away, average wait %.1f, "
+                        + "queue depth mean %.1f max %d, seat p50 %d ns p99 %d ns max %d ns, digest %016x",
+                events, getEventsPerSecond(), seatedParties, turnedAwayParties, averageWait,
+                meanQueueDepth, maxQueueDepth, seatLatency.getValueAtQuantile(0.5),
+                seatLatency.getValueAtQuantile(0.99), seatLatency.getMax(), decisionDigest);
+    }
+}
@@ -0,0 +1,114 @@
+package restaurant.sim;
+
+import restaurant.exceptions.NonPositiveArgumentException;
+
+import java.util.Arrays;
+
+/**
+ * A recorded stream of parties: when each arrived, how large it was, whether it was a VIP,
+ * and how long it stayed once it had a table.
+ * <p>
+ * Parties are kept in arrival order in primitive arrays, so a trace of a month of service
+ * can be replayed against thousands of floor plans without creating an object per party.
+ * Times are in whatever unit the trace was recorded in, typically nanoseconds.
+ */
+public final class Trace {
+    private final long[] arrivals;
+    private final int[] sizes;
+    private final boolean[] vips;
+    private final long[] diningTimes;
+
+    private Trace(final long[] arrivals, final int[] sizes, final boolean[] vips, final long[] diningTimes) {
+        this.arrivals = arrivals;
+        this.sizes = sizes;
+        this.vips = vips;
+        this.diningTimes = diningTimes;
+    }
+
+    /**
+     * @return The number of parties in the trace.
+     */
+    public int size() {
+        return arrivals.length;
+    }
+
+    public long getArrival(final int index) {
+        return arrivals[index];
+    }
+
+    public int getPartySize(final int index) {
+        return sizes[index];
+    }
+
+    public boolean isVIP(final int index) {
+        return vips[index];
+    }
+
+    /**
+     * @return How long the party stayed from being seated until its table was emptied.
+     */
+    public long getDiningTime(final int index) {
+        return diningTimes[index];
+    }
+
+    /**
+     * Collects parties in any order and sorts them by arrival when the trace is built,
+     * keeping parties that arrived at the same time in the order they were added.
+     */
+    public static final class Builder {
+        private long[] arrivals = new long[64];
+        private int[] sizes = new int[64];
+        private boolean[] vips = new boolean[64];
+        private long[] diningTimes = new long[64];
+        private int size = 0;
+
+        /**
+         * Adds a party.
+         * If the party size is less than or equal to zero, this method throws an instance of
+         * {@link NonPositiveArgumentException} with the size filled in.
+         * If the dining time is negative, this method throws an instance of {@link IllegalArgumentException}.
+         * @param arrival When the party was booked.
+         * @param partySize The size of the party.
+         * @param isVIP Whether the party is a VIP.
+         * @param diningTime How long the party stayed at its table.
+         * @return This builder.
+         * @throws NonPositiveArgumentException
+         */
+        public Builder add(final long arrival, final int partySize, final boolean isVIP, final long diningTime)
+                throws NonPositiveArgumentException {
+            if (partySize <= 0) throw new NonPositiveArgumentException(partySize);
+            if (diningTime < 0) throw new IllegalArgumentException("dining time must not be negative: " + diningTime);
+            if (size == arrivals.length) {
+                arrivals = Arrays.copyOf(arrivals, size * 2);
+                sizes = Arrays.copyOf(sizes, size * 2);
+                vips = Arrays.copyOf(vips, size * 2);
+                diningTimes = Arrays.copyOf(diningTimes, size * 2);
+            }
+            arrivals[size] = arrival;
+            sizes[size] = partySize;
+            vips[size] = isVIP;
+            diningTimes[size] = diningTime;
+            ++size;
+            return this;
+        }
+
+        public Trace build() {
+            final Integer[] order = new Integer[size];
+            for (int i = 0; i < size; ++i) order[i] = i;
+            // Arrays.sort on objects is stable, so simultaneous arrivals keep the order they were added in.
+            Arrays.sort(order, (a, b) -> Long.compare(arrivals[a], arrivals[b]));
+
+            final long[] sortedArrivals = new long[size];
+            final int[] sortedSizes = new int[size];
+            final boolean[] sortedVips = new boolean[size];
+            final long[] sortedDiningTimes = new long[size];
+            for (int i = 0; i < size; ++i) {
+                sortedArrivals[i] = arrivals[order[i]];
+                sortedSizes[i] = sizes[order[i]];
+                sortedVips[i] = vips[order[i]];
+                sortedDiningTimes[i] = diningTimes[order[i]];
+            }
+            return new Trace(sortedArrivals, sortedSizes, sortedVips, sortedDiningTimes);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package restaurant.sim;
+
+import restaurant.Party;
+import restaurant.RestaurantListener;
+import restaurant.Seating;
+import restaurant.Table;
+import restaurant.exceptions.NonPositiveArgumentException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Records a {@link Trace} from a live restaurant: add it as a listener and every party that is booked,
+ * seated and then leaves becomes one entry, with its dining time measured from seating to its table being emptied.
+ * Parties removed before they were seated cancelled, and are left out.
+ */
+public final class TraceRecorder implements RestaurantListener {
+    private final LongSupplier clock;
+    private final Map<Party, Long> booked = new HashMap<Party, Long>();
+    private final Map<Party, Long> seated = new HashMap<Party, Long>();
+    private final Trace.Builder trace = new Trace.Builder();
+
+    public TraceRecorder() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * @param clock The source of the times recorded.
+     */
+    public TraceRecorder(final LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @return The parties that have left so far.
+     */
+    public Trace toTrace() {
+        return trace.build();
+    }
+
+    @Override
+    public void partyBooked(final Party party) {
+        booked.put(party, clock.getAsLong());
+    }
+
+    @Override
+    public void partySeated(final Seating seating) {
+        seated.put(seating.getParty(), clock.getAsLong());
+    }
+
+    @Override
+    public void partyRemoved(final Party party) {
+        if (seated.containsKey(party)) leave(party);
+        booked.remove(party);
+    }
+
+    @Override
+    public void tableEmptied(final Table table, final Party party) {
+        // A party at joined tables empties each of them; it leaves with its main table.
+        if (party.getSeatedTable() == table && seated.containsKey(party)) leave(party);
+    }
+
+    private void leave(final Party party) {
+        final long seatedAt = seated.remove(party);
+        final Long bookedAt = booked.remove(party);
+        try {
+            trace.add(bookedAt == null ? seatedAt : bookedAt, party.getPartySize(), party.isVIP(),
+                    Math.max(0, clock.getAsLong() - seatedAt));
+        } catch (NonPositiveArgumentException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package restaurant;
+
+import org.junit.Test;
+import restaurant.exceptions.EmptyTableException;
+import restaurant.exceptions.MissingPartyException;
+import restaurant.exceptions.NoTablesAvailableException;
+import restaurant.exceptions.NonPositiveArgumentException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ConcurrentRestaurantTest {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 20000;
+
+    private final ConcurrentRestaurant restaurant = new ConcurrentRestaurant();
+
+    @Test
+    public void seatParty_SameRulesAsRestaurant() {
+        try {
+            Table large = restaurant.addTable(8);
+            Table best = restaurant.addTable(5);
+            Party regular = restaurant.bookParty(4, false);
+            Party vip = restaurant.bookParty(4, true);
+            restaurant.seatParty();
+            assertEquals(vip, best.getParty());
+            restaurant.seatParty();
+            assertEquals(regular, large.getParty());
+            assertTrue(restaurant.getEmptyTables().isEmpty());
+            assertEquals(2, restaurant.filledTableCount());
+        } catch (NonPositiveArgumentException | NoTablesAvailableException e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void removeParty_NotSeated() throws NonPositiveArgumentException, MissingPartyException {
+        Party party = restaurant.bookParty(2, false);
+        restaurant.removeParty(party);
+        assertTrue(restaurant.getUnseatedParties().isEmpty());
+        try {
+            restaurant.removeParty(party);
+            fail();
+        } catch (MissingPartyException e) {
+            assertEquals(party, e.getParty());
+        }
+    }
+
+    @Test
+    public void removeParty_Seated() throws Exception {
+        Table table = restaurant.addTable(4);
+        Party party = restaurant.bookParty(3, false);
+        restaurant.seatParty();
+        restaurant.removeParty(party);
+        assertEquals(0, restaurant.filledTableCount());
+        assertEquals(Collections.singletonList(table), restaurant.getEmptyTables());
+        assertNull(table.getParty());
+        try {
+            restaurant.removeParty(party);
+            fail();
+        } catch (MissingPartyException e) {
+            assertEquals(party, e.getParty());
+        }
+
+        Party next = restaurant.bookParty(4, false);
+        restaurant.seatParty();
+        assertEquals(next, table.getParty());
+    }
+
+    @Test
+    public void removeParty_RacesEmptyTable() throws Exception {
+        final List<Table> tables = new ArrayList<Table>();
+        final List<Party> parties = new ArrayList<Party>();
+        for (int i = 0; i < 256; ++i) {
+            tables.add(restaurant.addTable(2));
+            parties.add(restaurant.bookParty(2, false));
+            restaurant.seatParty();
+        }
+
+        final AtomicInteger released = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+        Thread remover = new Thread(() -> {
+            try {
+                start.await();
+                for (Party party : parties) {
+                    try {
+                        restaurant.removeParty(party);
+                        released.incrementAndGet();
+                    } catch (MissingPartyException e) {
+                        // Expected when the table was emptied first.
+                    }
+                }
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        });
+        Thread emptier = new Thread(() -> {
+            try {
+                start.await();
+                for (Table table : tables) {
+                    try {
+                        restaurant.emptyTable(table);
+                        released.incrementAndGet();
+                    } catch (EmptyTableException e) {
+                        // Expected when the party was removed first.
+                    }
+                }
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        });
+        remover.start();
+        emptier.start();
+        start.countDown();
+        remover.join();
+        emptier.join();
+
+        assertTrue(failures.toString(), failures.isEmpty());
+        assertEquals(parties.size(), released.get());
+        assertEquals(tables.size(), restaurant.emptyTableCount());
+        assertEquals(tables.size(), restaurant.getEmptyTables().size());
+    }
+
+    @Test
+    public void stress_SeatAndRemove() throws Exception {
+        for (int i = 0; i < 16; ++i) restaurant.addTable(4);
+        final List<Party> parties = new ArrayList<Party>();
+        for (int i = 0; i < OPERATIONS; ++i) parties.add(restaurant.bookParty(1 + i % 4, i % 5 == 0));
+
+        final AtomicInteger removing = new AtomicInteger(THREADS - 1);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+        List<Thread> threads = new ArrayList<Thread>();
+        threads.add(new Thread(() -> {
+            try {
+                start.await();
+                while (removing.get() > 0) {
+                    try {
+                        restaurant.seatParty();
+                    } catch (NoTablesAvailableException e) {
+                        // Expected while every table is taken.
+                    }
+                }
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        }));
+        for (int t = 0; t < THREADS - 1; ++t) {
+            final int first = t;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    // Every party exists until it is removed here, so removal must never miss one that is being seated.
+                    for (int i = first; i < parties.size(); i += THREADS - 1) restaurant.removeParty(parties.get(i));
+                } catch (Throwable e) {
+                    failures.add(e);
+                } finally {
+                    removing.decrementAndGet();
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+
+        assertTrue(failures.toString(), failures.isEmpty());
+        assertTrue(restaurant.getUnseatedParties().isEmpty());
+        assertEquals(0, restaurant.filledTableCount());
+        assertEquals(16, restaurant.getEmptyTables().size());
+    }
+
+    @Test
+    public void stress_SeatAndEmpty() throws Exception {
+        List<Table> tables = new ArrayList<Table>();
+        for (int i = 0; i < 64; ++i) {
+            tables.add(restaurant.addTable(2 + i % 7));
+        }
+
+        final Set<Party> booked = ConcurrentHashMap.newKeySet();
+        final Set<Party> freed = ConcurrentHashMap.newKeySet();
+        final AtomicInteger empties = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < THREADS; ++t) {
+            final Random random = new Random(t);
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS; ++i) {
+                        switch (random.nextInt(3)) {
+                            case 0:
+                                booked.add(restaurant.bookParty(1 + random.nextInt(8), random.nextInt(4) == 0));
+                                break;
+                            case 1:
+                                try {
+                                    restaurant.seatParty();
+                                } catch (NoTablesAvailableException e) {
+                                    // Expected whenever every table is busy.
+                                }
+                                break;
+                            default:
+                                Table table = tables.get(random.nextInt(tables.size()));
+                                try {
+                                    Party party = restaurant.emptyTable(table);
+                                    assertTrue(freed.add(party));
+                                    empties.incrementAndGet();
+                                } catch (EmptyTableException e) {
+                                    // Expected when the table is already free.
+                                }
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(failures.toString(), failures.isEmpty());
+
+        int seated = 0;
+        Map<Table, Party> occupants = new IdentityHashMap<Table, Party>();
+        for (Party party : booked) {
+            if (party.getSeatedTable() == null) continue;
+            ++seated;
+            assertTrue(party.getSeatedTable().getTableCapacity() >= party.getPartySize());
+            if (!freed.contains(party)) assertNull(occupants.put(party.getSeatedTable(), party));
+        }
+
+        List<Table> filled = restaurant.getFilledTables();
+        assertEquals(occupants.size(), filled.size());
+        for (Table table : filled) {
+            assertEquals(table.getParty(), occupants.get(table));
+        }
+        assertEquals(seated, empties.get() + filled.size());
+        assertEquals(booked.size() - seated, restaurant.getUnseatedParties().size());
+        assertEquals(tables.size(), restaurant.emptyTableCount() + restaurant.filledTableCount());
+    }
+}
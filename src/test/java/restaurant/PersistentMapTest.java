@@ -0,0 +1,44 @@
+package restaurant;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class PersistentMapTest {
+    @Test
+    public void putAndRemove_MatchTreeMap() {
+        Random random = new Random(42);
+        TreeMap<Integer, String> expected = new TreeMap<Integer, String>();
+        PersistentMap<String> map = PersistentMap.empty();
+        for (int i = 0; i < 5000; ++i) {
+            int key = random.nextInt(500);
+            if (random.nextBoolean()) {
+                expected.put(key, "v" + i);
+                map = map.put(key, "v" + i);
+            } else {
+                expected.remove(key);
+                map = map.remove(key);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(new ArrayList<String>(expected.values()), map.values());
+        for (int key = 0; key < 500; ++key) assertEquals(expected.get(key), map.get(key));
+        assertEquals(expected.firstEntry().getValue(), map.valueAt(0));
+    }
+
+    @Test
+    public void put_LeavesOriginalUnchanged() {
+        PersistentMap<String> before = PersistentMap.<String>empty().put(1, "a").put(2, "b");
+        PersistentMap<String> after = before.put(1, "c").remove(2);
+        assertEquals("a", before.get(1));
+        assertEquals("b", before.get(2));
+        assertEquals("c", after.get(1));
+        assertEquals(1, after.size());
+        assertSame(after, after.remove(7));
+    }
+}
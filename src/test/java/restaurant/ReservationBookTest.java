@@ -0,0 +1,104 @@
+package restaurant;
+
+import org.junit.Test;
+import restaurant.exceptions.MissingTableException;
+import restaurant.exceptions.NonPositiveArgumentException;
+import restaurant.exceptions.OccupiedTableException;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ReservationBookTest {
+    private final Restaurant restaurant = new Restaurant();
+
+    @Test
+    public void reserve_SmallestFreeTable() throws NonPositiveArgumentException {
+        Table table4 = restaurant.addTable(4);
+        Table table6 = restaurant.addTable(6);
+        ReservationBook book = new ReservationBook(restaurant);
+
+        assertEquals(table4, book.reserve(3, 100, 200).getTable());
+        assertEquals(table6, book.reserve(3, 150, 250).getTable());
+        assertNull(book.reserve(3, 160, 170));
+        assertEquals(table4, book.reserve(4, 200, 300).getTable());
+        assertFalse(book.isAvailable(2, 199, 201));
+        assertTrue(book.isAvailable(2, 250, 260));
+        assertNull(book.reserve(8, 0, 10));
+    }
+
+    @Test
+    public void cancel() throws NonPositiveArgumentException {
+        restaurant.addTable(4);
+        ReservationBook book = new ReservationBook(restaurant);
+        Reservation reservation = book.reserve(4, 0, 10);
+        assertFalse(book.isAvailable(4, 5, 6));
+        assertTrue(book.cancel(reservation));
+        assertFalse(book.cancel(reservation));
+        assertTrue(book.isAvailable(4, 5, 6));
+    }
+
+    @Test
+    public void isAvailable_NonPositiveSize() throws NonPositiveArgumentException {
+        restaurant.addTable(4);
+        ReservationBook book = new ReservationBook(restaurant);
+        try {
+            book.isAvailable(0, 0, 10);
+            fail();
+        } catch (NonPositiveArgumentException e) {
+            assertEquals(0, e.getArgument());
+        }
+    }
+
+    @Test
+    public void findAvailableStarts_NonPositiveSize() throws NonPositiveArgumentException {
+        restaurant.addTable(4);
+        ReservationBook book = new ReservationBook(restaurant);
+        try {
+            book.findAvailableStarts(-2, 0, 100, 10);
+            fail();
+        } catch (NonPositiveArgumentException e) {
+            assertEquals(-2, e.getArgument());
+        }
+    }
+
+    @Test
+    public void findAvailableStarts() throws NonPositiveArgumentException {
+        Table table4 = restaurant.addTable(4);
+        restaurant.addTable(2);
+        ReservationBook book = new ReservationBook(restaurant);
+        book.reserve(4, 0, 50);
+        book.reserve(4, 60, 100);
+        book.reserve(3, 130, 200);
+
+        List<TimeWindow> starts = book.findAvailableStarts(3, 0, 200, 20);
+        assertEquals(1, starts.size());
+        assertEquals(100, starts.get(0).getStart());
+        assertEquals(111, starts.get(0).getEnd());
+
+        assertEquals(3, book.getReservations(table4, 40, 140).size());
+        assertEquals(1, book.findAvailableStarts(2, 0, 200, 200).size());
+    }
+
+    @Test
+    public void tableRemoved() throws NonPositiveArgumentException, OccupiedTableException, MissingTableException {
+        ReservationBook book = new ReservationBook(restaurant);
+        Table table = restaurant.addTable(4);
+        assertEquals(table, book.reserve(4, 0, 10).getTable());
+        Reservation later = book.reserve(4, 20, 30);
+        restaurant.removeTable(table);
+        assertNull(book.reserve(4, 20, 30));
+        assertTrue(book.getReservations(table, 0, 10).isEmpty());
+
+        List<Reservation> displaced = book.takeDisplacedReservations();
+        assertEquals(2, displaced.size());
+        assertEquals(0, displaced.get(0).getStart());
+        assertEquals(later, displaced.get(1));
+        assertFalse(book.cancel(later));
+        assertTrue(book.takeDisplacedReservations().isEmpty());
+    }
+}
@@ -0,0 +1,108 @@
+package restaurant;
+
+import org.junit.Test;
+import restaurant.RestaurantEvent.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RestaurantFeedTest {
+    private final Restaurant restaurant = new Restaurant();
+
+    @Test
+    public void subscribe_SnapshotThenChanges() throws Exception {
+        Table table = restaurant.addTable(4);
+        restaurant.bookParty(2, false);
+        RestaurantFeed feed = new RestaurantFeed(restaurant, Runnable::run, 16);
+        Recorder recorder = new Recorder();
+        feed.subscribe(recorder);
+        assertTrue(recorder.events.isEmpty());
+
+        recorder.subscription.request(Long.MAX_VALUE);
+        RestaurantEvent snapshot = recorder.events.get(0);
+        assertEquals(Type.SNAPSHOT, snapshot.getType());
+        assertEquals("[1:4:-]", snapshot.getTables().toString());
+        assertEquals("[party 1 of 2]", snapshot.getParties().toString());
+
+        restaurant.seatParty();
+        restaurant.bookParty(3, true);
+        restaurant.emptyTable(table);
+        assertEquals(4, recorder.events.size());
+        assertEquals("PARTY_SEATED#1 party 1 of 2 at 1", recorder.events.get(1).toString());
+        assertEquals("PARTY_BOOKED#2 party 2 of 3 VIP", recorder.events.get(2).toString());
+        assertEquals("TABLE_EMPTIED#3 table 1 party 1 of 2 at 1", recorder.events.get(3).toString());
+
+        feed.close();
+        assertTrue(recorder.completed);
+        assertEquals(0, feed.getSubscriberCount());
+    }
+
+    @Test
+    public void subscribe_SlowSubscriberResyncs() throws Exception {
+        RestaurantFeed feed = new RestaurantFeed(restaurant, Runnable::run, 2);
+        Recorder recorder = new Recorder();
+        feed.subscribe(recorder);
+        recorder.subscription.request(1);
+        assertEquals(1, recorder.events.size());
+
+        restaurant.addTable(2);
+        restaurant.addTable(6);
+        restaurant.bookParty(5, false);
+        restaurant.seatParty();
+        assertEquals(1, recorder.events.size());
+
+        recorder.subscription.request(2);
+        assertEquals(2, recorder.events.size());
+        RestaurantEvent snapshot = recorder.events.get(1);
+        assertEquals(Type.SNAPSHOT, snapshot.getType());
+        assertEquals(4, snapshot.getSequence());
+        assertEquals("[1:2:-, 2:6:1]", snapshot.getTables().toString());
+        assertEquals("[party 1 of 5 at 2]", snapshot.getParties().toString());
+
+        restaurant.bookParty(1, false);
+        assertEquals(Type.PARTY_BOOKED, recorder.events.get(2).getType());
+        assertEquals(5, recorder.events.get(2).getSequence());
+    }
+
+    @Test
+    public void request_NonPositive() {
+        RestaurantFeed feed = new RestaurantFeed(restaurant, Runnable::run, 4);
+        Recorder recorder = new Recorder();
+        feed.subscribe(recorder);
+        recorder.subscription.request(0);
+        assertTrue(recorder.error instanceof IllegalArgumentException);
+        assertFalse(recorder.completed);
+        assertEquals(0, feed.getSubscriberCount());
+    }
+
+    private static final class Recorder implements RestaurantFeed.Subscriber {
+        private final List<RestaurantEvent> events = new ArrayList<RestaurantEvent>();
+        private RestaurantFeed.Subscription subscription;
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onSubscribe(final RestaurantFeed.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(final RestaurantEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package restaurant;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RestaurantGroupTest {
+    private final RestaurantGroup group = new RestaurantGroup(3);
+
+    @After
+    public void close() {
+        group.close();
+    }
+
+    @Test
+    public void submit_GroupTotals() throws Exception {
+        for (int id = 0; id < 6; ++id) {
+            group.addRestaurant(id).get();
+            final int capacity = id + 2;
+            group.submit(id, restaurant -> restaurant.addTable(capacity)).get();
+        }
+        assertEquals(2 + 3 + 4 + 5 + 6 + 7, group.totalFreeSeats());
+
+        group.submit(0, restaurant -> restaurant.bookParty(2, false)).get();
+        group.submit(4, restaurant -> restaurant.bookParty(9, false)).get();
+        group.submit(0, restaurant -> {
+            restaurant.seatParty();
+            return null;
+        }).get();
+        assertEquals(25, group.totalFreeSeats());
+        assertEquals(1, group.totalWaitingParties());
+        assertTrue(group.longestWaitNanos() > 0);
+
+        assertTrue(group.removeRestaurant(4).get());
+        assertEquals(0, group.totalWaitingParties());
+        assertEquals(0, group.longestWaitNanos());
+        assertEquals(19, group.totalFreeSeats());
+        assertFalse(group.removeRestaurant(4).get());
+    }
+
+    @Test
+    public void submit_MissingRestaurant() throws Exception {
+        try {
+            group.submit(7, Restaurant::emptyTableCount).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void submit_ManyLocationsInParallel() throws Exception {
+        final int locations = 30;
+        for (int id = 0; id < locations; ++id) group.addRestaurant(id);
+        List<CompletableFuture<Integer>> results = new ArrayList<CompletableFuture<Integer>>();
+        for (int id = 0; id < locations; ++id) {
+            results.add(group.submit(id, restaurant -> {
+                for (int i = 0; i < 100; ++i) restaurant.addTable(4);
+                for (int i = 0; i < 150; ++i) restaurant.bookParty(1 + i % 4, i % 10 == 0);
+                return restaurant.seatAll().size();
+            }));
+        }
+        for (CompletableFuture<Integer> result : results) assertEquals(100, (int) result.get());
+        assertEquals(0, group.totalFreeSeats());
+        assertEquals(locations * 50, group.totalWaitingParties());
+    }
+}
@@ -0,0 +1,150 @@
+package restaurant;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RestaurantJournalTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replay_RebuildsTablesAndWaitlist() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (RestaurantJournal journal = RestaurantJournal.open(directory)) {
+            populate(journal.getRestaurant());
+        }
+
+        try (RestaurantJournal journal = RestaurantJournal.open(directory)) {
+            assertPopulated(journal.getRestaurant());
+        }
+    }
+
+    @Test
+    public void replay_AfterCheckpoint() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (RestaurantJournal journal = RestaurantJournal.open(directory, 1, 0)) {
+            Restaurant restaurant = journal.getRestaurant();
+            Table gone = restaurant.addTable(3);
+            restaurant.bookParty(3, false);
+            restaurant.seatParty();
+            restaurant.emptyTable(gone);
+            restaurant.removeTable(gone);
+            journal.checkpoint();
+            populate(restaurant);
+        }
+
+        try (RestaurantJournal journal = RestaurantJournal.open(directory)) {
+            Restaurant restaurant = journal.getRestaurant();
+            assertPopulated(restaurant);
+            assertEquals(5, restaurant.addTable(1).getId());
+            assertEquals(7, restaurant.bookParty(1, false).getId());
+        }
+    }
+
+    @Test
+    public void replay_CheckpointDuringJoinedSeating() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (RestaurantJournal journal = RestaurantJournal.open(directory, 1, 5)) {
+            Restaurant restaurant = journal.getRestaurant();
+            Table first = restaurant.addTable(2);
+            Table second = restaurant.addTable(2);
+            restaurant.joinTables(first, second);
+            restaurant.bookParty(4, false);
+            restaurant.seatParty();
+        }
+
+        try (RestaurantJournal journal = RestaurantJournal.open(directory)) {
+            Restaurant restaurant = journal.getRestaurant();
+            assertEquals(2, restaurant.filledTableCount());
+            assertEquals(2, restaurant.getFilledTables().get(0).getParty().getSeatedTables().size());
+        }
+    }
+
+    @Test
+    public void replay_CheckpointDuringJoinedRelease() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (RestaurantJournal journal = RestaurantJournal.open(directory, 64, 7)) {
+            Restaurant restaurant = journal.getRestaurant();
+            Table first = restaurant.addTable(2);
+            Table second = restaurant.addTable(2);
+            restaurant.joinTables(first, second);
+            restaurant.bookParty(4, false);
+            restaurant.seatParty();
+            restaurant.emptyTable(first);
+        }
+
+        try (RestaurantJournal journal = RestaurantJournal.open(directory)) {
+            Restaurant restaurant = journal.getRestaurant();
+            assertEquals(0, restaurant.filledTableCount());
+            assertEquals(2, restaurant.emptyTableCount());
+            assertEquals(1, restaurant.getEmptyTables().get(0).getAdjacentTables().size());
+        }
+    }
+
+    @Test
+    public void replay_IgnoresTornRecord() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (RestaurantJournal journal = RestaurantJournal.open(directory)) {
+            journal.getRestaurant().addTable(4);
+            journal.getRestaurant().addTable(6);
+        }
+        Path log = directory.resolve("journal-0.log");
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (RestaurantJournal journal = RestaurantJournal.open(directory)) {
+            Restaurant restaurant = journal.getRestaurant();
+            assertEquals(1, restaurant.emptyTableCount());
+            assertEquals(4, restaurant.getEmptyTables().get(0).getTableCapacity());
+            restaurant.addTable(8);
+        }
+        try (RestaurantJournal journal = RestaurantJournal.open(directory)) {
+            assertEquals(2, journal.getRestaurant().emptyTableCount());
+        }
+    }
+
+    /**
+     * Tables 1 to 4 and parties 1 to 5, with parties 1 and 3 seated and 2 and 4 cleared.
+     */
+    private static void populate(Restaurant restaurant) throws Exception {
+        Table table2 = restaurant.addTable(2);
+        Table table4 = restaurant.addTable(4);
+        restaurant.addTable(6);
+        restaurant.bookParty(2, false);
+        restaurant.bookParty(4, false);
+        restaurant.seatAll();
+        restaurant.emptyTable(table2);
+        restaurant.bookParty(8, false);
+        restaurant.bookParty(6, true);
+        restaurant.bookParty(5, false);
+        restaurant.seatAll();
+        restaurant.emptyTable(table4);
+    }
+
+    private static void assertPopulated(Restaurant restaurant) throws IOException {
+        assertEquals(2, restaurant.emptyTableCount());
+        assertEquals(1, restaurant.filledTableCount());
+        Table filled = restaurant.getFilledTables().get(0);
+        assertEquals(6, filled.getTableCapacity());
+        assertEquals(6, filled.getParty().getPartySize());
+        assertTrue(filled.getParty().isVIP());
+
+        List<Party> waiting = restaurant.getUnseatedParties();
+        assertEquals(2, waiting.size());
+        assertEquals(8, waiting.get(0).getPartySize());
+        assertEquals(5, waiting.get(1).getPartySize());
+        assertFalse(waiting.get(0).isVIP());
+    }
+}
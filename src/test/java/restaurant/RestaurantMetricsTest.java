@@ -0,0 +1,59 @@
+package restaurant;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RestaurantMetricsTest {
+    @Test
+    public void snapshot_CountsCallsAndOccupancy() throws Exception {
+        Restaurant restaurant = new Restaurant();
+        restaurant.addTable(2);
+        Table table4 = restaurant.addTable(4);
+        restaurant.bookParty(3, false);
+        RestaurantMetrics metrics = new RestaurantMetrics();
+        restaurant.setMetrics(metrics);
+
+        restaurant.bookParty(8, false);
+        restaurant.bookParty(2, true);
+        assertEquals(3, metrics.snapshot().getQueueDepth());
+        restaurant.seatAll();
+        assertEquals(Status.NO_TABLES_AVAILABLE, restaurant.trySeatParty());
+        assertEquals(Status.NO_TABLES_AVAILABLE, restaurant.trySeatParty());
+        restaurant.emptyTable(table4);
+
+        RestaurantMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(2, snapshot.getBookPartyLatency().getCount());
+        assertEquals(2, snapshot.getSeatPartyLatency().getCount());
+        assertEquals(1, snapshot.getEmptyTableLatency().getCount());
+        assertEquals(2, snapshot.getWaitTime().getCount());
+        assertEquals(2, snapshot.getNoTablesAvailableCount());
+        assertEquals(1, snapshot.getQueueDepth());
+        assertEquals(1, snapshot.getOccupiedCount(2));
+        assertEquals(0, snapshot.getOccupiedCount(4));
+        assertEquals(0.5, snapshot.getTableUtilization(), 0);
+        assertEquals(1.0, snapshot.getTableUtilization(2), 0);
+
+        restaurant.setMetrics(null);
+        assertEquals(0, metrics.snapshot().getQueueDepth());
+        assertTrue(metrics.snapshot().getCapacities().isEmpty());
+    }
+
+    @Test
+    public void histogram_QuantilesWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; ++i) {
+            histogram.record(i * 1000L);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1000000, snapshot.getMax());
+        assertEquals(500500.0, snapshot.getMean(), 0);
+        long median = snapshot.getValueAtQuantile(0.5);
+        assertTrue(median >= 500000 && median <= 500000 * 1.125);
+        long p99 = snapshot.getValueAtQuantile(0.99);
+        assertTrue(p99 >= 990000 && p99 <= 1000000);
+        assertEquals(0, new LatencyHistogram().snapshot().getValueAtQuantile(0.99));
+    }
+}
@@ -0,0 +1,201 @@
+package restaurant;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RestaurantSnapshotTest {
+    @Test
+    public void restore() throws Exception {
+        Restaurant original = new Restaurant();
+        Table table2 = original.addTable(2);
+        original.addTable(4);
+        original.addTable(8);
+        original.bookParty(2, false);
+        original.bookParty(4, false);
+        original.seatAll();
+        original.emptyTable(table2);
+        original.bookParty(9, false);
+        original.bookParty(6, false);
+        original.bookParty(10, true);
+
+        Restaurant copy = RestaurantSnapshot.of(original).restore();
+        assertEquals(2, copy.emptyTableCount());
+        assertEquals(1, copy.filledTableCount());
+        Table filled = copy.getFilledTables().get(0);
+        assertEquals(4, filled.getTableCapacity());
+        assertEquals(2, filled.getParty().getId());
+        assertEquals(filled, filled.getParty().getSeatedTable());
+
+        List<Party> waiting = copy.getUnseatedParties();
+        assertEquals(3, waiting.size());
+        assertEquals(5, waiting.get(0).getId());
+        assertTrue(waiting.get(0).isVIP());
+        assertEquals(3, waiting.get(1).getId());
+        assertEquals(4, waiting.get(2).getId());
+        assertEquals(4, copy.addTable(1).getId());
+        assertEquals(6, copy.bookParty(1, false).getId());
+    }
+
+    @Test
+    public void wrap_ReadsInPlace() throws Exception {
+        Restaurant original = new Restaurant();
+        original.addTable(4);
+        original.bookParty(3, true);
+        original.seatParty();
+        original.bookParty(5, false);
+
+        ByteBuffer image = RestaurantSnapshot.of(original).buffer();
+        RestaurantSnapshot snapshot = RestaurantSnapshot.wrap(image);
+        assertEquals(1, snapshot.tableCount());
+        assertEquals(2, snapshot.partyCount());
+        assertEquals(4, snapshot.tableCapacity(0));
+        assertEquals(1, snapshot.tableParty(0));
+        assertEquals(5, snapshot.partySize(0));
+        assertFalse(snapshot.isVIP(0));
+        assertEquals(-1, snapshot.partyTable(0));
+        assertEquals(3, snapshot.partySize(1));
+        assertTrue(snapshot.isVIP(1));
+        assertEquals(0, snapshot.partyTable(1));
+    }
+
+    @Test
+    public void wrap_Truncated() throws Exception {
+        Restaurant original = new Restaurant();
+        original.addTable(4);
+        ByteBuffer image = RestaurantSnapshot.of(original).buffer();
+        image.limit(image.limit() - 1);
+        try {
+            RestaurantSnapshot.wrap(image);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Truncated restaurant snapshot", e.getMessage());
+        }
+    }
+
+    @Test
+    public void restore_JoinedTables() throws Exception {
+        Restaurant original = new Restaurant();
+        Table table4 = original.addTable(4);
+        Table table6 = original.addTable(6);
+        Table table2 = original.addTable(2);
+        original.joinTables(table4, table6);
+        original.joinTables(table6, table2);
+        original.bookParty(9, false);
+        original.seatAll();
+
+        RestaurantSnapshot snapshot = RestaurantSnapshot.of(original);
+        assertEquals(2, snapshot.edgeCount());
+        Restaurant copy = snapshot.restore();
+        assertEquals(2, copy.filledTableCount());
+        Party party = copy.getFilledTables().get(0).getParty();
+        assertEquals(6, party.getSeatedTable().getTableCapacity());
+        assertEquals(2, party.getSeatedTables().size());
+        Table empty = copy.getEmptyTables().get(0);
+        assertEquals(1, empty.getAdjacentTables().size());
+
+        copy.emptyTable(party.getSeatedTables().get(1));
+        assertEquals(3, copy.emptyTableCount());
+    }
+
+    @Test
+    public void of_DuringJoinedRelease() throws Exception {
+        final Restaurant original = new Restaurant();
+        Table first = original.addTable(2);
+        Table second = original.addTable(2);
+        original.joinTables(first, second);
+        Party party = original.bookParty(4, false);
+        original.seatParty();
+        Table main = party.getSeatedTable();
+        Table other = main == first ? second : first;
+
+        final List<Restaurant> copies = new ArrayList<Restaurant>();
+        original.addListener(new RestaurantListener() {
+            @Override
+            public void tableEmptied(final Table table, final Party party) {
+                copies.add(RestaurantSnapshot.of(original).restore());
+            }
+        });
+        original.emptyTable(main);
+
+        // Midway, the main table is empty and the other still seats the party.
+        Restaurant midway = copies.get(0);
+        assertEquals(1, midway.filledTableCount());
+        Table held = midway.getFilledTables().get(0);
+        assertEquals(other.getId(), held.getId());
+        assertEquals(held, held.getParty().getSeatedTable());
+        assertEquals(0, copies.get(1).filledTableCount());
+    }
+
+    @Test
+    public void restore_VersionOne() throws Exception {
+        Restaurant original = new Restaurant();
+        original.addTable(2);
+        original.addTable(6);
+        original.bookParty(5, false);
+        original.seatParty();
+        original.bookParty(3, true);
+
+        // A version 1 image is the current one without the adjacency count in the header.
+        ByteBuffer current = RestaurantSnapshot.of(original).buffer();
+        ByteBuffer image = ByteBuffer.allocate(current.remaining() - 4).order(ByteOrder.LITTLE_ENDIAN);
+        image.put((ByteBuffer) current.duplicate().limit(24)).put((ByteBuffer) current.duplicate().position(28));
+        image.putShort(4, (short) 1).flip();
+
+        RestaurantSnapshot snapshot = RestaurantSnapshot.wrap(image);
+        assertEquals(0, snapshot.edgeCount());
+        Restaurant copy = snapshot.restore();
+        assertEquals(1, copy.filledTableCount());
+        assertEquals(6, copy.getFilledTables().get(0).getTableCapacity());
+        assertEquals(1, copy.getFilledTables().get(0).getParty().getId());
+        assertEquals(2, copy.getUnseatedParties().get(0).getId());
+    }
+
+    @Test
+    public void restore_Inconsistent() throws Exception {
+        Restaurant original = new Restaurant();
+        original.addTable(4);
+        original.bookParty(3, false);
+        original.seatParty();
+        ByteBuffer image = RestaurantSnapshot.of(original).buffer();
+
+        // The party record of the seated party points at a table past the end of the image.
+        ByteBuffer badIndex = copy(image);
+        badIndex.putInt(28 + 12 + 8, 5);
+        try {
+            RestaurantSnapshot.wrap(badIndex).restore();
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Party 0 sits at table 5, which is not in the snapshot", e.getMessage());
+        }
+
+        // A second party claims the table the first one sits at.
+        Restaurant crowded = new Restaurant();
+        crowded.addTable(4);
+        crowded.bookParty(3, false);
+        crowded.bookParty(2, false);
+        ByteBuffer twice = copy(RestaurantSnapshot.of(crowded).buffer());
+        twice.putInt(28 + 12 + 8, 0);
+        twice.putInt(28 + 12 + 13 + 8, 0);
+        try {
+            RestaurantSnapshot.wrap(twice).restore();
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Party 1 cannot be seated at table 0", e.getMessage());
+        }
+    }
+
+    private static ByteBuffer copy(final ByteBuffer image) {
+        ByteBuffer copy = ByteBuffer.allocate(image.remaining()).order(ByteOrder.LITTLE_ENDIAN);
+        copy.put(image.duplicate()).flip();
+        return copy;
+    }
+}
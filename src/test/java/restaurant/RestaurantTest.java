@@ -8,9 +8,17 @@ import restaurant.exceptions.NoTablesAvailableException;
 import restaurant.exceptions.NonPositiveArgumentException;
 import restaurant.exceptions.OccupiedTableException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -111,6 +119,45 @@ public class RestaurantTest {
         assertEquals(0, restaurant.getEmptyTables().size());
     }
 
+    @Test
+    public void setTableCapacity_OwnedTable() throws Exception {
+        Table table = restaurant.addTable(2);
+        try {
+            table.setTableCapacity(8);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals(2, table.getTableCapacity());
+        }
+        try {
+            table.OccupyTable(new Party(2, false));
+            fail();
+        } catch (IllegalStateException e) {
+            assertFalse(table.isOccupied());
+        }
+        restaurant.removeTable(table);
+        table.setTableCapacity(8);
+        assertEquals(8, table.getTableCapacity());
+    }
+
+    @Test
+    public void getFilledTables_Snapshot() throws Exception {
+        List<Table> tables = new ArrayList<Table>();
+        for (int i = 0; i < 4; ++i) {
+            tables.add(restaurant.addTable(2));
+            restaurant.bookParty(2, false);
+        }
+        restaurant.seatAll();
+        restaurant.emptyTable(tables.get(0));
+
+        List<Table> filled = restaurant.getFilledTables();
+        assertEquals(new HashSet<Table>(tables.subList(1, 4)), new HashSet<Table>(filled));
+        for (Table table : filled) restaurant.emptyTable(table);
+        assertEquals(new HashSet<Table>(tables), new HashSet<Table>(restaurant.getEmptyTables()));
+        assertEquals(3, filled.size());
+        assertTrue(restaurant.getFilledTablesView().isEmpty());
+        assertEquals(4, restaurant.getEmptyTablesView().size());
+    }
+
     @Test
     public void bookParty_Negative() {
         try {
@@ -154,6 +201,53 @@ public class RestaurantTest {
         }
     }
 
+    @Test
+    public void removeParty_Waiting() throws Exception {
+        Party first = restaurant.bookParty(2, false);
+        Party second = restaurant.bookParty(2, false);
+        restaurant.removeParty(first);
+        assertEquals(Arrays.asList(second), restaurant.getUnseatedParties());
+        assertEquals(Status.MISSING_PARTY, restaurant.tryRemoveParty(first));
+
+        Table table = restaurant.addTable(2);
+        restaurant.seatParty();
+        assertEquals(second, table.getParty());
+    }
+
+    @Test
+    public void removeParty_Seated() throws Exception {
+        Table table = restaurant.addTable(4);
+        Party seated = restaurant.bookParty(4, false);
+        restaurant.seatParty();
+        Party waiting = restaurant.bookParty(3, false);
+        restaurant.setAutoSeat(true);
+
+        restaurant.removeParty(seated);
+        assertTrue(table.isOccupied());
+        assertEquals(waiting, table.getParty());
+        assertTrue(restaurant.getUnseatedParties().isEmpty());
+        assertEquals(Status.MISSING_PARTY, restaurant.tryRemoveParty(seated));
+
+        restaurant.removeParty(waiting);
+        assertFalse(table.isOccupied());
+        assertNull(table.getParty());
+        assertEquals(Arrays.asList(table), restaurant.getEmptyTables());
+        assertTrue(restaurant.getFilledTables().isEmpty());
+    }
+
+    @Test
+    public void removeParties() throws Exception {
+        Table table = restaurant.addTable(2);
+        Party seated = restaurant.bookParty(2, false);
+        restaurant.seatParty();
+        Party noShow = restaurant.bookParty(2, true);
+        Party waiting = restaurant.bookParty(2, false);
+
+        assertEquals(2, restaurant.removeParties(Arrays.asList(seated, noShow, seated)));
+        assertEquals(Arrays.asList(waiting), restaurant.getUnseatedParties());
+        assertFalse(table.isOccupied());
+    }
+
     @Test
     public void emptyRestaurant() {
         assertTrue(restaurant.getEmptyTables().isEmpty());
@@ -321,4 +415,380 @@ public class RestaurantTest {
         }
     }
 
+    @Test
+    public void seatParty_SmallestFittingTable() {
+        try {
+            Table large = restaurant.addTable(8);
+            Table small = restaurant.addTable(3);
+            Table best = restaurant.addTable(5);
+            Party party = restaurant.bookParty(4, false);
+            restaurant.seatParty();
+            assertEquals(party, best.getParty());
+            assertEquals(best, party.getSeatedTable());
+            assertEquals(2, restaurant.getEmptyTables().size());
+            assertTrue(restaurant.getEmptyTables().contains(large));
+            assertTrue(restaurant.getEmptyTables().contains(small));
+        } catch (NonPositiveArgumentException | NoTablesAvailableException e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void seatParty_AfterEmptyTable() {
+        try {
+            Table table = restaurant.addTable(4);
+            Party party1 = restaurant.bookParty(4, false);
+            Party party2 = restaurant.bookParty(2, false);
+            restaurant.seatParty();
+            assertEquals(party1, table.getParty());
+            assertEquals(party1, restaurant.emptyTable(table));
+            restaurant.seatParty();
+            assertEquals(party2, table.getParty());
+            assertTrue(restaurant.getUnseatedParties().isEmpty());
+        } catch (NonPositiveArgumentException | NoTablesAvailableException | EmptyTableException e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void getUnseatedParties_BookingOrderWithinPriority() throws NonPositiveArgumentException {
+        Party regular1 = restaurant.bookParty(2, false);
+        Party vip1 = restaurant.bookParty(2, true);
+        Party regular2 = restaurant.bookParty(2, false);
+        Party vip2 = restaurant.bookParty(2, true);
+        Party regular3 = restaurant.bookParty(2, false);
+        assertEquals(5, restaurant.getUnseatedParties().size());
+        assertEquals(vip1, restaurant.getUnseatedParties().get(0));
+        assertEquals(vip2, restaurant.getUnseatedParties().get(1));
+        assertEquals(regular1, restaurant.getUnseatedParties().get(2));
+        assertEquals(regular2, restaurant.getUnseatedParties().get(3));
+        assertEquals(regular3, restaurant.getUnseatedParties().get(4));
+    }
+
+    @Test
+    public void seatParty_EarliestVIPPartyInList() {
+        try {
+            Table table = restaurant.addTable(6);
+            restaurant.bookParty(5, false);
+            Party vip1 = restaurant.bookParty(5, true);
+            Party vip2 = restaurant.bookParty(5, true);
+            restaurant.seatParty();
+            assertEquals(vip1, table.getParty());
+            assertEquals(vip2, restaurant.getUnseatedParties().get(0));
+        } catch (NonPositiveArgumentException | NoTablesAvailableException e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void removeTable_OtherRestaurant() throws OccupiedTableException, NonPositiveArgumentException {
+        Table table = new Restaurant().addTable(5);
+        try {
+            restaurant.removeTable(table);
+            fail();
+        } catch (MissingTableException e) {
+            assertEquals(table, e.getTable());
+        }
+    }
+
+    @Test
+    public void removeTable_KeepsRemainingTables() throws OccupiedTableException, MissingTableException, NonPositiveArgumentException {
+        Table table1 = restaurant.addTable(2);
+        Table table2 = restaurant.addTable(4);
+        Table table3 = restaurant.addTable(6);
+        restaurant.removeTable(table1);
+        restaurant.removeTable(table3);
+        assertEquals(1, restaurant.getEmptyTables().size());
+        assertTrue(restaurant.getEmptyTables().contains(table2));
+        Table table4 = restaurant.addTable(8);
+        restaurant.removeTable(table2);
+        assertEquals(1, restaurant.getEmptyTables().size());
+        assertTrue(restaurant.getEmptyTables().contains(table4));
+    }
+
+    @Test
+    public void tableCounts() {
+        try {
+            Table table = restaurant.addTable(4);
+            restaurant.addTable(2);
+            assertEquals(2, restaurant.emptyTableCount());
+            assertEquals(0, restaurant.filledTableCount());
+            restaurant.bookParty(3, false);
+            restaurant.seatParty();
+            assertEquals(1, restaurant.emptyTableCount());
+            assertEquals(1, restaurant.filledTableCount());
+            restaurant.emptyTable(table);
+            assertEquals(2, restaurant.emptyTableCount());
+            assertEquals(0, restaurant.filledTableCount());
+        } catch (NonPositiveArgumentException | NoTablesAvailableException | EmptyTableException e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void getEmptyTablesView_ReadOnly() throws NonPositiveArgumentException {
+        Table table = restaurant.addTable(4);
+        try {
+            restaurant.getEmptyTablesView().remove(table);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            assertTrue(restaurant.getEmptyTablesView().contains(table));
+        }
+        assertTrue(restaurant.getEmptyTables().remove(table));
+        assertTrue(restaurant.getEmptyTablesView().contains(table));
+    }
+
+    @Test
+    public void seatAll() throws NonPositiveArgumentException {
+        Table table2 = restaurant.addTable(2);
+        Table table4 = restaurant.addTable(4);
+        Party large = restaurant.bookParty(6, false);
+        Party regular = restaurant.bookParty(2, false);
+        Party vip = restaurant.bookParty(3, true);
+        Party late = restaurant.bookParty(2, false);
+        List<Seating> seatings = restaurant.seatAll();
+        assertEquals(2, seatings.size());
+        assertEquals(vip, seatings.get(0).getParty());
+        assertEquals(table4, seatings.get(0).getTable());
+        assertEquals(regular, seatings.get(1).getParty());
+        assertEquals(table2, seatings.get(1).getTable());
+        assertEquals(2, restaurant.getUnseatedParties().size());
+        assertEquals(large, restaurant.getUnseatedParties().get(0));
+        assertEquals(late, restaurant.getUnseatedParties().get(1));
+        assertTrue(restaurant.seatAll().isEmpty());
+    }
+
+    @Test
+    public void seatUpTo() throws NonPositiveArgumentException {
+        restaurant.addTable(2);
+        restaurant.addTable(2);
+        Party party1 = restaurant.bookParty(2, false);
+        Party party2 = restaurant.bookParty(2, false);
+        List<Seating> seatings = restaurant.seatUpTo(1);
+        assertEquals(1, seatings.size());
+        assertEquals(party1, seatings.get(0).getParty());
+        assertEquals(party2, restaurant.getUnseatedParties().get(0));
+        try {
+            restaurant.seatUpTo(0);
+            fail();
+        } catch (NonPositiveArgumentException e) {
+            assertEquals(0, e.getArgument());
+        }
+    }
+
+    @Test
+    public void trySeatParty() throws NonPositiveArgumentException {
+        assertEquals(Status.NO_PARTIES_WAITING, restaurant.trySeatParty());
+        Party party = restaurant.bookParty(4, false);
+        assertEquals(Status.NO_TABLES_AVAILABLE, restaurant.trySeatParty());
+        Table table = restaurant.addTable(4);
+        assertEquals(Status.OK, restaurant.trySeatParty());
+        assertEquals(party, table.getParty());
+    }
+
+    @Test
+    public void tryRemoveTable() throws NonPositiveArgumentException {
+        assertEquals(Status.MISSING_TABLE, restaurant.tryRemoveTable(null));
+        Table table = restaurant.addTable(4);
+        restaurant.bookParty(4, false);
+        assertEquals(Status.OK, restaurant.trySeatParty());
+        assertEquals(Status.OCCUPIED_TABLE, restaurant.tryRemoveTable(table));
+        Table other = restaurant.addTable(2);
+        assertEquals(Status.OK, restaurant.tryRemoveTable(other));
+        assertEquals(Status.MISSING_TABLE, restaurant.tryRemoveTable(other));
+    }
+
+    @Test
+    public void autoSeat() {
+        try {
+            final List<Seating> seatings = new ArrayList<Seating>();
+            restaurant.addListener(new RestaurantListener() {
+                @Override
+                public void partySeated(Seating seating) {
+                    seatings.add(seating);
+                }
+            });
+            Party waiting = restaurant.bookParty(4, false);
+            Table table2 = restaurant.addTable(2);
+            assertTrue(restaurant.setAutoSeat(true).isEmpty());
+            Party small = restaurant.bookParty(2, false);
+            assertEquals(small, table2.getParty());
+            Table table4 = restaurant.addTable(4);
+            assertEquals(waiting, table4.getParty());
+            Party late = restaurant.bookParty(2, false);
+            assertEquals(late, restaurant.getUnseatedParties().get(0));
+            restaurant.emptyTable(table4);
+            assertEquals(late, table4.getParty());
+            assertEquals(3, seatings.size());
+            assertEquals(small, seatings.get(0).getParty());
+            assertEquals(waiting, seatings.get(1).getParty());
+            assertEquals(late, seatings.get(2).getParty());
+        } catch (NonPositiveArgumentException | EmptyTableException e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void seatParty_JoinedTables() throws Exception {
+        Table table2 = restaurant.addTable(2);
+        Table table4 = restaurant.addTable(4);
+        Table table6 = restaurant.addTable(6);
+        Table lone = restaurant.addTable(8);
+        restaurant.joinTables(table2, table4);
+        restaurant.joinTables(table4, table6);
+        Party party = restaurant.bookParty(10, false);
+        restaurant.seatParty();
+
+        assertEquals(table6, party.getSeatedTable());
+        assertEquals(2, party.getSeatedTables().size());
+        assertEquals(party, table4.getParty());
+        assertFalse(table2.isOccupied());
+        assertFalse(lone.isOccupied());
+        assertEquals(2, restaurant.filledTableCount());
+
+        assertEquals(party, restaurant.emptyTable(table4));
+        assertEquals(4, restaurant.emptyTableCount());
+        assertEquals(Arrays.asList(table6), party.getSeatedTables());
+    }
+
+    @Test
+    public void seatParty_SeparatedTablesNotJoined() throws Exception {
+        Table table4 = restaurant.addTable(4);
+        Table table6 = restaurant.addTable(6);
+        restaurant.joinTables(table4, table6);
+        restaurant.separateTables(table6, table4);
+        restaurant.bookParty(10, false);
+        assertEquals(Status.NO_TABLES_AVAILABLE, restaurant.trySeatParty());
+    }
+
+    @Test
+    public void getSharedUnseatedParties_SharedUntilChanged() throws Exception {
+        Party regular = restaurant.bookParty(2, false);
+        Party vip = restaurant.bookParty(4, true);
+        List<Party> snapshot = restaurant.getSharedUnseatedParties();
+        assertSame(snapshot, restaurant.getSharedUnseatedParties());
+        List<Party> copy = restaurant.getUnseatedParties();
+        assertNotSame(copy, restaurant.getUnseatedParties());
+        assertEquals(snapshot, copy);
+        copy.clear();
+        assertEquals(2, restaurant.waitingCount());
+        assertEquals(2, restaurant.waitingCount());
+        assertEquals(vip, restaurant.waitingPartyAt(0));
+        assertEquals(regular, restaurant.waitingPartyAt(1));
+        try {
+            snapshot.remove(0);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            assertEquals(2, snapshot.size());
+        }
+
+        Party late = restaurant.bookParty(3, false);
+        assertNotSame(snapshot, restaurant.getSharedUnseatedParties());
+        assertEquals(2, snapshot.size());
+        final List<Party> visited = new ArrayList<Party>();
+        restaurant.forEachWaiting(visited::add);
+        assertEquals(Arrays.asList(vip, regular, late), visited);
+    }
+
+    @Test
+    public void estimateWaits_FromTurnover() throws Exception {
+        final long[] now = {0};
+        Restaurant timed = new Restaurant(() -> now[0]);
+        assertEquals(TimeUnit.HOURS.toNanos(1), timed.getMeanDiningTime(4));
+        Table first = timed.addTable(4);
+        timed.addTable(4);
+        Party seated = timed.bookParty(4, false);
+        timed.bookParty(4, false);
+        timed.seatParty();
+        timed.seatParty();
+
+        now[0] = 30;
+        timed.emptyTable(first);
+        assertEquals(30, timed.getMeanDiningTime(4));
+        assertEquals(30, timed.getMeanDiningTime(2));
+
+        now[0] = 40;
+        timed.bookParty(4, false);
+        timed.bookParty(4, false);
+        Party third = timed.bookParty(4, false);
+        timed.bookParty(8, false);
+        assertTrue(Arrays.equals(new long[]{0, 0, 30, -1}, timed.estimateWaits()));
+        assertEquals(30, timed.estimateWait(third));
+        try {
+            timed.estimateWait(seated);
+            fail();
+        } catch (MissingPartyException e) {
+            assertSame(seated, e.getParty());
+        }
+    }
+
+    @Test
+    public void snapshot_Consistent() throws Exception {
+        try {
+            restaurant.snapshot();
+            fail();
+        } catch (IllegalStateException e) {
+            assertFalse(restaurant.isSnapshotsEnabled());
+        }
+        Table table = restaurant.addTable(4);
+        Party seated = restaurant.bookParty(3, false);
+        restaurant.seatParty();
+        Party regular = restaurant.bookParty(2, false);
+        restaurant.setSnapshotsEnabled(true);
+        Party vip = restaurant.bookParty(4, true);
+
+        RestaurantView before = restaurant.snapshot();
+        assertSame(before, restaurant.snapshot());
+        assertEquals(1, before.getFilledTableCount());
+        assertEquals(seated.getId(), before.getTable(table.getId()).getPartyId());
+        assertEquals(table.getId(), before.getParty(seated.getId()).getTableId(0));
+        assertEquals(vip.getId(), before.getWaitingParties().get(0).getId());
+        assertEquals(regular.getId(), before.getWaitingParties().get(1).getId());
+
+        restaurant.emptyTable(table);
+        restaurant.seatParty();
+        RestaurantView after = restaurant.snapshot();
+        assertTrue(after.getVersion() > before.getVersion());
+        assertEquals(vip.getId(), after.getTable(table.getId()).getPartyId());
+        assertNull(after.getParty(seated.getId()));
+        assertEquals(1, after.getWaitingCount());
+        assertEquals(seated.getId(), before.getTable(table.getId()).getPartyId());
+        assertEquals(2, before.getWaitingCount());
+    }
+
+    @Test
+    public void snapshot_NeverHalfReleased() throws Exception {
+        final Table table = restaurant.addTable(2);
+        final Table other = restaurant.addTable(2);
+        restaurant.joinTables(table, other);
+        final Party seated = restaurant.bookParty(4, false);
+        restaurant.seatParty();
+        final Party waiting = restaurant.bookParty(3, false);
+        restaurant.setSnapshotsEnabled(true);
+        restaurant.setAutoSeat(true);
+        final RestaurantView before = restaurant.snapshot();
+
+        final List<RestaurantView> seen = new ArrayList<RestaurantView>();
+        restaurant.addListener(new RestaurantListener() {
+            @Override
+            public void tableEmptied(final Table emptied, final Party party) {
+                seen.add(restaurant.snapshot());
+            }
+
+            @Override
+            public void partySeated(final Seating seating) {
+                seen.add(restaurant.snapshot());
+            }
+        });
+        restaurant.emptyTable(table);
+
+        assertEquals(3, seen.size());
+        for (RestaurantView view : seen) assertSame(before, view);
+        RestaurantView after = restaurant.snapshot();
+        assertEquals(before.getVersion() + 1, after.getVersion());
+        assertEquals(2, after.getFilledTableCount());
+        assertNull(after.getParty(seated.getId()));
+        assertEquals(waiting.getId(), after.getTable(table.getId()).getPartyId());
+        assertEquals(0, after.getWaitingCount());
+    }
 }
@@ -0,0 +1,133 @@
+package restaurant;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SeatingPolicyTest {
+    private final Restaurant restaurant = new Restaurant();
+
+    @Test
+    public void bestFit_Default() throws Exception {
+        assertTrue(restaurant.getSeatingPolicy() instanceof BestFitPolicy);
+        Table table4 = restaurant.addTable(4);
+        Table table8 = restaurant.addTable(8);
+        Party large = restaurant.bookParty(10, false);
+        Party regular = restaurant.bookParty(3, false);
+        Party vip = restaurant.bookParty(4, true);
+
+        List<Seating> seatings = restaurant.seatAll();
+        assertEquals(2, seatings.size());
+        assertEquals(vip, table4.getParty());
+        assertEquals(regular, table8.getParty());
+        assertEquals(large, restaurant.getUnseatedParties().get(0));
+    }
+
+    @Test
+    public void utilization_FewestEmptySeats() throws Exception {
+        restaurant.setSeatingPolicy(new UtilizationPolicy());
+        Table table6 = restaurant.addTable(6);
+        Party first = restaurant.bookParty(2, true);
+        Party exact = restaurant.bookParty(6, false);
+        restaurant.seatParty();
+        assertEquals(exact, table6.getParty());
+        assertEquals(first, restaurant.getUnseatedParties().get(0));
+    }
+
+    @Test
+    public void aging_PromotesLongWaits() throws Exception {
+        AtomicLong now = new AtomicLong();
+        restaurant.setSeatingPolicy(new AgingPolicy(30, now::get));
+        Party regular = restaurant.bookParty(4, false);
+        now.set(10);
+        Party vip = restaurant.bookParty(4, true);
+        Table table = restaurant.addTable(4);
+
+        restaurant.seatParty();
+        assertEquals(vip, table.getParty());
+        restaurant.emptyTable(table);
+
+        Party laterVip = restaurant.bookParty(4, true);
+        now.set(40);
+        restaurant.seatParty();
+        assertEquals(regular, table.getParty());
+        assertEquals(laterVip, restaurant.getUnseatedParties().get(0));
+    }
+
+    @Test
+    public void sectionBalancing_LeastLoadedSection() throws Exception {
+        SectionBalancingPolicy policy = new SectionBalancingPolicy();
+        Table a1 = restaurant.addTable(4);
+        Table a2 = restaurant.addTable(4);
+        Table b1 = restaurant.addTable(6);
+        policy.assignSection(a1, 1);
+        policy.assignSection(a2, 1);
+        restaurant.setSeatingPolicy(policy);
+        policy.assignSection(b1, 2);
+
+        restaurant.bookParty(4, false);
+        restaurant.bookParty(4, false);
+        restaurant.bookParty(4, false);
+        restaurant.seatAll();
+        assertTrue(a1.isOccupied() && a2.isOccupied() && b1.isOccupied());
+        assertEquals(8, policy.getSeatedGuests(1));
+        assertEquals(4, policy.getSeatedGuests(2));
+
+        restaurant.emptyTable(a1);
+        restaurant.emptyTable(b1);
+        Party party = restaurant.bookParty(3, false);
+        restaurant.seatParty();
+        assertEquals(b1, party.getSeatedTable());
+        assertFalse(a1.isOccupied());
+    }
+
+    @Test
+    public void sectionBalancing_DetachKeepsSections() throws Exception {
+        SectionBalancingPolicy policy = new SectionBalancingPolicy();
+        Table a1 = restaurant.addTable(4);
+        restaurant.addTable(4);
+        restaurant.setSeatingPolicy(policy);
+        policy.assignSection(a1, 1);
+        restaurant.setSeatingPolicy(new BestFitPolicy());
+
+        restaurant.setSeatingPolicy(policy);
+        restaurant.bookParty(4, false);
+        restaurant.bookParty(4, false);
+        restaurant.seatAll();
+        assertEquals(4, policy.getSeatedGuests(0));
+        assertEquals(4, policy.getSeatedGuests(1));
+    }
+
+    @Test
+    public void setSeatingPolicy_SwitchMidService() throws Exception {
+        Table table = restaurant.addTable(8);
+        restaurant.bookParty(2, false);
+        Party exact = restaurant.bookParty(8, false);
+        restaurant.setSeatingPolicy(new UtilizationPolicy());
+        restaurant.seatParty();
+        assertEquals(exact, table.getParty());
+        restaurant.emptyTable(table);
+
+        restaurant.setSeatingPolicy(new BestFitPolicy());
+        restaurant.seatParty();
+        assertEquals(2, table.getParty().getPartySize());
+    }
+
+    @Test
+    public void setSeatingPolicy_AlreadyAttached() {
+        SeatingPolicy policy = new BestFitPolicy();
+        restaurant.setSeatingPolicy(policy);
+        try {
+            new Restaurant().setSeatingPolicy(policy);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals(restaurant.getSeatingPolicy(), policy);
+        }
+    }
+}
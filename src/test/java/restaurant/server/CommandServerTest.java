@@ -0,0 +1,90 @@
+package restaurant.server;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import restaurant.Restaurant;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CommandServerTest {
+    private CommandServer server;
+    private Socket socket;
+    private BufferedReader in;
+    private PrintWriter out;
+
+    @Before
+    public void start() throws IOException {
+        server = new CommandServer(new Restaurant(), 0);
+        socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        out = new PrintWriter(socket.getOutputStream(), true);
+    }
+
+    @After
+    public void stop() throws IOException {
+        socket.close();
+        server.close();
+    }
+
+    @Test
+    public void close_DisconnectsClients() throws IOException {
+        assertEquals("OK 1", send("TABLE 4"));
+        socket.setSoTimeout(5000);
+        server.close();
+        assertNull(in.readLine());
+    }
+
+    private String send(final String command) throws IOException {
+        out.println(command);
+        return in.readLine();
+    }
+
+    @Test
+    public void commands() throws IOException {
+        assertEquals("OK 1", send("TABLE 4"));
+        assertEquals("OK 2", send("TABLE 2"));
+        assertEquals("OK 1", send("BOOK 3"));
+        assertEquals("OK 2", send("book 2 vip"));
+        assertEquals("OK 2 2", send("SEAT"));
+        assertEquals("OK 1 1", send("SEAT"));
+        assertEquals("ERR NO_PARTIES_WAITING", send("SEAT"));
+        assertEquals("OK 1:4:1 2:2:2", sortedTables(send("LIST TABLES")));
+        assertEquals("OK 1", send("EMPTY 1"));
+        assertEquals("ERR EMPTY_TABLE", send("EMPTY 1"));
+        assertEquals("ERR MISSING_TABLE", send("EMPTY 9"));
+        assertEquals("OK 3", send("BOOK 8"));
+        assertEquals("ERR NO_TABLES_AVAILABLE", send("SEAT"));
+        assertEquals("OK 3", send("LIST PARTIES"));
+        assertEquals("OK", send("REMOVE_TABLE 1"));
+        assertEquals("ERR OCCUPIED_TABLE", send("REMOVE_TABLE 2"));
+        assertEquals("ERR NON_POSITIVE", send("BOOK 0"));
+        assertEquals("ERR BAD_REQUEST", send("BOOK many"));
+        assertEquals("ERR BAD_REQUEST", send("DANCE"));
+    }
+
+    @Test
+    public void loadGenerator() throws Exception {
+        for (int i = 0; i < 20; ++i) send("TABLE 6");
+        LoadGenerator.Result result = new LoadGenerator(server.getPort(), 4, 300).run();
+        assertTrue(result.getLatency().getCount() > 0);
+        assertEquals(0, result.getErrors());
+    }
+
+    private static String sortedTables(final String reply) {
+        String[] words = reply.split(" ");
+        Arrays.sort(words, 1, words.length);
+        return String.join(" ", words);
+    }
+}
@@ -0,0 +1,68 @@
+package restaurant.sim;
+
+import org.junit.Test;
+import restaurant.Party;
+import restaurant.Restaurant;
+import restaurant.Table;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class FloorPlanOptimizerTest {
+    @Test
+    public void withSeats() throws Exception {
+        assertEquals(Arrays.asList(new FloorPlan(2, 2, 2), new FloorPlan(2, 4)), FloorPlan.withSeats(6, 4, 2, 2));
+    }
+
+    @Test
+    public void evaluateAll() throws Exception {
+        Trace trace = new Trace.Builder()
+                .add(0, 2, false, 10)
+                .add(0, 2, false, 10)
+                .add(0, 2, false, 10)
+                .add(5, 6, false, 10)
+                .build();
+        FloorPlanOptimizer optimizer = new FloorPlanOptimizer(trace);
+        FloorPlan single = new FloorPlan(2);
+        FloorPlan three = new FloorPlan(2, 2, 2);
+        List<ReplayResult> results = optimizer.evaluateAll(Arrays.asList(single, three));
+
+        ReplayResult queued = results.get(0);
+        assertEquals(single, queued.getPlan());
+        assertEquals(3, queued.getSeatedParties());
+        assertEquals(1, queued.getTurnedAwayParties());
+        assertEquals(10.0, queued.getAverageWait(), 0);
+        assertEquals(1.0, queued.getUtilization(), 1e-9);
+
+        ReplayResult spread = results.get(1);
+        assertEquals(0.0, spread.getAverageWait(), 0);
+        assertEquals(1.0, spread.getUtilization(), 1e-9);
+
+        assertEquals(three, optimizer.best(Arrays.asList(single, three), FloorPlanOptimizer.SHORTEST_WAIT).getPlan());
+        assertEquals(new FloorPlan(6), optimizer.best(Arrays.asList(three, new FloorPlan(6)), FloorPlanOptimizer.SHORTEST_WAIT).getPlan());
+    }
+
+    @Test
+    public void traceRecorder() throws Exception {
+        final long[] now = {0};
+        Restaurant restaurant = new Restaurant();
+        TraceRecorder recorder = new TraceRecorder(() -> now[0]);
+        restaurant.addListener(recorder);
+        Table table = restaurant.addTable(4);
+        Party party = restaurant.bookParty(3, true);
+        restaurant.bookParty(2, false);
+        now[0] = 5;
+        restaurant.seatParty();
+        now[0] = 50;
+        assertEquals(party, restaurant.emptyTable(table));
+
+        Trace trace = recorder.toTrace();
+        assertEquals(1, trace.size());
+        assertEquals(0, trace.getArrival(0));
+        assertEquals(3, trace.getPartySize(0));
+        assertEquals(true, trace.isVIP(0));
+        assertEquals(45, trace.getDiningTime(0));
+    }
+}
@@ -0,0 +1,54 @@
+package restaurant.sim;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SimulationTest {
+    private static Simulation.Builder busyService() throws Exception {
+        return new Simulation.Builder()
+                .floorPlan(new FloorPlan(2, 2, 4, 4, 6))
+                .partySizes(0, 4, 1, 3, 0, 1, 0, 1)
+                .meanInterarrival(10)
+                .meanDiningTime(60)
+                .parties(2000);
+    }
+
+    @Test
+    public void run_Deterministic() throws Exception {
+        SimulationResult first = busyService().seed(7).build().run();
+        SimulationResult again = busyService().seed(7).build().run();
+        SimulationResult other = busyService().seed(8).build().run();
+
+        assertEquals(first.getDecisionDigest(), again.getDecisionDigest());
+        assertEquals(first.getEvents(), again.getEvents());
+        assertEquals(first.getMaxQueueDepth(), again.getMaxQueueDepth());
+        assertEquals(first.getAverageWait(), again.getAverageWait(), 0);
+        assertTrue(first.getDecisionDigest() != other.getDecisionDigest());
+
+        assertEquals(2000, first.getSeatedParties() + first.getTurnedAwayParties());
+        assertTrue(first.getTurnedAwayParties() > 0);
+        assertEquals(first.getSeatedParties(), first.getEmptyLatency().getCount());
+        assertEquals(first.getEvents(), first.getBookLatency().getCount() + first.getSeatLatency().getCount()
+                + first.getEmptyLatency().getCount());
+    }
+
+    @Test
+    public void run_EventSink() throws Exception {
+        StringWriter out = new StringWriter();
+        SimulationResult result = busyService().parties(50).eventSink(EventSink.csv(out)).build().run();
+
+        String[] lines = out.toString().split("\n");
+        assertEquals("time,kind,party,latency_nanos,queue_depth", lines[0]);
+        assertEquals(result.getEvents(), lines.length - 1);
+        int maxQueueDepth = 0;
+        for (int i = 1; i < lines.length; ++i) {
+            maxQueueDepth = Math.max(maxQueueDepth, Integer.parseInt(lines[i].substring(lines[i].lastIndexOf(',') + 1)));
+        }
+        assertEquals(result.getMaxQueueDepth(), maxQueueDepth);
+        assertTrue(lines[1].contains(",BOOK,1,"));
+    }
+}